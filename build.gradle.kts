@@ -3,6 +3,7 @@ plugins {
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
     id("org.graalvm.buildtools.native") version "0.10.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.maal"
@@ -28,6 +29,31 @@ dependencies {
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// ./gradlew loadTest -PloadTestArgs="--rps=500 --duration=60 --scenario=default-slow --start-api"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the open-loop load test against embedded stub payment processors."
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.maal.apipaymentprocessorthreads.loadtest.LoadTest")
+    args = providers.gradleProperty("loadTestArgs").orNull?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
+
+jmh {
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // ./gradlew jmh -Pjmh.includes=PaymentQueueBenchmark roda apenas os benchmarks que casam com a regex
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
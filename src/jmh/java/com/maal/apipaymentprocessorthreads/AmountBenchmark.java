@@ -0,0 +1,78 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara BigDecimal com centavos em long no caminho quente: conversão da entrada,
+ * soma do resumo e valor enviado ao processor. Rodar com {@code ./gradlew jmh};
+ * o profiler gc mostra gc.alloc.rate.norm (bytes alocados por operação).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountBenchmark {
+
+    private static final int PAYMENTS = 1024;
+
+    private final BigDecimal[] decimals = new BigDecimal[PAYMENTS];
+    private final long[] cents = new long[PAYMENTS];
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < PAYMENTS; i++) {
+            long value = ThreadLocalRandom.current().nextLong(1, 100_000);
+            decimals[i] = BigDecimal.valueOf(value, 2);
+            cents[i] = value;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal summaryBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long summaryCents() {
+        long total = 0;
+        for (long amount : cents) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return new BigDecimal("19.90");
+    }
+
+    @Benchmark
+    public long parseCents() {
+        return Amounts.toCents(decimals[ThreadLocalRandom.current().nextInt(PAYMENTS)]);
+    }
+
+    @Benchmark
+    public String serializeBigDecimal() {
+        return decimals[ThreadLocalRandom.current().nextInt(PAYMENTS)].toPlainString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.QueueOverflowPolicy;
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão da fila de pagamentos com vários produtores (ingestão) e consumidores (workers) ao mesmo tempo.
+ * Os consumidores usam a retirada não bloqueante para que o fim de cada iteração não fique preso no semáforo.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentQueueBenchmark {
+
+    private PaymentPriorityBlockingQueue queue;
+    private PaymentsProcess paymentsProcess;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = new PaymentPriorityBlockingQueue(3, 8192, 8192, QueueOverflowPolicy.REJECT, 0, 8);
+        paymentsProcess = new PaymentsProcess(new PaymentPayload(), new Payment(UUID.randomUUID(), 1990));
+    }
+
+    @Benchmark
+    @Group("fourProducersFourConsumers")
+    @GroupThreads(4)
+    public boolean enqueue() {
+        return queue.addToQueue(paymentsProcess);
+    }
+
+    @Benchmark
+    @Group("fourProducersFourConsumers")
+    @GroupThreads(4)
+    public Optional<PaymentsProcess> dequeue() {
+        return queue.pollPayment();
+    }
+
+    @Benchmark
+    @Group("oneProducerFourConsumers")
+    @GroupThreads(1)
+    public boolean enqueueSingleProducer() {
+        return queue.addToQueue(paymentsProcess);
+    }
+
+    @Benchmark
+    @Group("oneProducerFourConsumers")
+    @GroupThreads(4)
+    public Optional<PaymentsProcess> dequeueManyConsumers() {
+        return queue.pollPayment();
+    }
+}
@@ -0,0 +1,108 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentStorage;
+import com.maal.apipaymentprocessorthreads.domain.document.CompactPaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de insert em lote no layout original ({@code payments}, correlationId String com índice único,
+ * amount Decimal128 e quatro índices secundários) e no compacto ({@code payments_compact}, UUID binário no
+ * {@code _id}, int64 em centavos e um índice de cobertura), pelo mesmo {@link PaymentStorage} usado pelo writer.
+ * Cada operação é um documento. Precisa de um MongoDB local:
+ * {@code ./gradlew jmh -Pjmh.includes=PaymentSchemaBenchmark}, com {@code -Dbenchmark.mongodb.uri} para outro endereço.
+ * Ao final de cada trial o tamanho dos dados e dos índices por documento é impresso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaymentSchemaBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"legacy", "compact"})
+    private String schema;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private PaymentStorage storage;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final List<PaymentDocument> batch = new ArrayList<>(BATCH_SIZE);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String uri = System.getProperty("benchmark.mongodb.uri", "mongodb://localhost/rinha_benchmark");
+        mongoClient = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(mongoClient, uri.substring(uri.lastIndexOf('/') + 1));
+        storage = new PaymentStorage(mongoTemplate, schema, 2000);
+
+        Class<?> type = storage.isCompact() ? CompactPaymentDocument.class : PaymentDocument.class;
+        String collection = collection();
+        mongoTemplate.dropCollection(collection);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(type)
+                .forEach(index -> mongoTemplate.indexOps(collection).ensureIndex(index));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Document stats = mongoTemplate.executeCommand(new Document("collStats", collection()));
+        long count = Math.max(1, ((Number) stats.get("count")).longValue());
+        System.out.printf("%n[%s] documents: %d, data bytes/doc: %d, index bytes/doc: %d%n", schema, count,
+                ((Number) stats.get("size")).longValue() / count, ((Number) stats.get("totalIndexSize")).longValue() / count);
+        mongoTemplate.dropCollection(collection());
+        mongoClient.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        batch.clear();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PaymentDocument document = new PaymentDocument();
+            document.setCorrelationId(new UUID(random.nextLong(), random.nextLong()).toString());
+            document.setAmount(Amounts.toBigDecimal(random.nextLong(1, 100_000)));
+            document.setRequestedAt(Instant.ofEpochMilli(now - random.nextInt(1000)));
+            document.setProcessorType(random.nextInt(10) < 8 ? PaymentProcessorType.DEFAULT : PaymentProcessorType.FALLBACK);
+            document.setProcessedBy("benchmark");
+            batch.add(document);
+        }
+        storage.insert(batch);
+    }
+
+    private String collection() {
+        return storage.isCompact() ? PaymentStorage.COMPACT_COLLECTION : PaymentStorage.LEGACY_COLLECTION;
+    }
+}
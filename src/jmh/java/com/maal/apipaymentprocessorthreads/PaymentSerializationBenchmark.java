@@ -0,0 +1,71 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentPayloadEncoder;
+import com.maal.apipaymentprocessorthreads.config.ObjectMapperConfig;
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentRequest;
+import com.maal.apipaymentprocessorthreads.entrypoint.handler.PaymentRequestParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse do corpo de POST /payments e serialização do payload enviado ao processor:
+ * ObjectMapper da aplicação contra o parser de streaming e o encoder de template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private final PaymentRequestParser parser = new PaymentRequestParser();
+    private final PaymentPayload payload = new PaymentPayload();
+    private byte[] requestBody;
+    private Payment payment;
+
+    @Setup
+    public void setup() {
+        requestBody = "{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":19.90}"
+                .getBytes(StandardCharsets.UTF_8);
+        payment = new Payment(UUID.randomUUID(), 1990);
+    }
+
+    @Benchmark
+    public PaymentRequest parseWithObjectMapper() throws Exception {
+        return objectMapper.readValue(requestBody, PaymentRequest.class);
+    }
+
+    @Benchmark
+    public long parseWithStreamingParser() {
+        parser.parse(requestBody, requestBody.length);
+        return parser.amountInCents() ^ parser.mostSignificantBits();
+    }
+
+    @Benchmark
+    public byte[] serializeWithObjectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public int serializeWithTemplateEncoder() {
+        PaymentPayloadEncoder.encode(payment, payload);
+        return payload.length();
+    }
+}
@@ -0,0 +1,96 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentPayloadEncoder;
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentProcessorClient;
+import com.maal.apipaymentprocessorthreads.adapter.http.ProcessorTransport;
+import com.maal.apipaymentprocessorthreads.config.ObjectMapperConfig;
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida e volta do {@link PaymentProcessorClient} contra um processor stub no mesmo processo
+ * (com.sun.net.httpserver em loopback): mede o custo do client e do transporte, sem a latência do processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ProcessorClientBenchmark {
+
+    private static final byte[] PROCESSED = "{\"message\":\"payment processed successfully\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private PaymentProcessorClient client;
+
+    @Setup(Level.Trial)
+    public void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/payments", exchange -> {
+            try (InputStream body = exchange.getRequestBody(); OutputStream response = exchange.getResponseBody()) {
+                body.readAllBytes();
+                exchange.sendResponseHeaders(200, PROCESSED.length);
+                response.write(PROCESSED);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Runnable::run)
+                .build();
+        ProcessorTransport transport = new ProcessorTransport("stub", baseUrl, httpClient, 16, Duration.ofMillis(100));
+        transport.warmUp();
+        client = new PaymentProcessorClient(transport, new ObjectMapperConfig().objectMapper(), Duration.ofSeconds(5));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPayload {
+
+        final PaymentPayload payload = new PaymentPayload();
+
+        @Setup
+        public void encode() {
+            PaymentPayloadEncoder.encode(new Payment(UUID.randomUUID(), 1990), payload);
+        }
+    }
+
+    @Benchmark
+    public boolean processPayment(ThreadPayload threadPayload) {
+        return client.processPayment(threadPayload.payload);
+    }
+}
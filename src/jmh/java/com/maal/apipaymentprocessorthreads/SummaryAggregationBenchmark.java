@@ -0,0 +1,98 @@
+package com.maal.apipaymentprocessorthreads;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentSummaryIndex;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redução do resumo sobre 100 mil a 1 milhão de pagamentos: soma em BigDecimal dos documentos
+ * (caminho antigo), soma em centavos dos mesmos documentos (fallback MongoDB atual)
+ * e consulta ao índice em memória. Os documentos cobrem os últimos 10 minutos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SummaryAggregationBenchmark {
+
+    private static final long SPAN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    private final List<PaymentDocument> defaultPayments = new ArrayList<>();
+    private final List<PaymentDocument> fallbackPayments = new ArrayList<>();
+    private PaymentSummaryIndex index;
+    private Instant from;
+    private Instant to;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        long end = System.currentTimeMillis();
+        long start = end - SPAN_MILLIS;
+        index = new PaymentSummaryIndex(null, "benchmark", 65536);
+        for (int i = 0; i < documents; i++) {
+            PaymentProcessorType type = random.nextInt(10) < 8 ? PaymentProcessorType.DEFAULT : PaymentProcessorType.FALLBACK;
+            Instant requestedAt = Instant.ofEpochMilli(start + random.nextLong(SPAN_MILLIS));
+            long cents = random.nextLong(1, 100_000);
+
+            PaymentDocument document = new PaymentDocument();
+            document.setAmount(Amounts.toBigDecimal(cents));
+            document.setRequestedAt(requestedAt);
+            document.setProcessorType(type);
+            (type == PaymentProcessorType.DEFAULT ? defaultPayments : fallbackPayments).add(document);
+            index.record(type, requestedAt, cents);
+        }
+        from = Instant.ofEpochMilli(start + 1234);
+        to = Instant.ofEpochMilli(end - 4321);
+    }
+
+    @Benchmark
+    public BigDecimal[] documentsBigDecimal() {
+        return new BigDecimal[]{
+                defaultPayments.stream().map(PaymentDocument::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add),
+                fallbackPayments.stream().map(PaymentDocument::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+        };
+    }
+
+    @Benchmark
+    public PaymentTotals documentsCents() {
+        long defaultAmountInCents = 0;
+        for (PaymentDocument payment : defaultPayments) {
+            defaultAmountInCents += Amounts.toCents(payment.getAmount());
+        }
+        long fallbackAmountInCents = 0;
+        for (PaymentDocument payment : fallbackPayments) {
+            fallbackAmountInCents += Amounts.toCents(payment.getAmount());
+        }
+        return new PaymentTotals(defaultPayments.size(), defaultAmountInCents, fallbackPayments.size(), fallbackAmountInCents);
+    }
+
+    @Benchmark
+    public PaymentTotals inMemoryIndex() {
+        return index.totals(from, to);
+    }
+}
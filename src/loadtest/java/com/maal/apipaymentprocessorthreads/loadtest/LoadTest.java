@@ -0,0 +1,175 @@
+package com.maal.apipaymentprocessorthreads.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.apipaymentprocessorthreads.ApiPaymentProcessorThreadsApplication;
+import com.maal.apipaymentprocessorthreads.config.ObjectMapperConfig;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentSummaryGetResponse;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.SummaryDetailsResponse;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga local, sem a rede externa dos processors: sobe os processors stub, opcionalmente a própria API
+ * (MongoDB local continua necessário), gera carga em malha aberta em POST /payments e compara o resumo da API
+ * com o que os stubs efetivamente processaram.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--rps=500 --duration=60 --scenario=default-slow --start-api"
+ * </pre>
+ *
+ * Opções: --api-url, --rps, --duration, --amount, --scenario (steady, default-slow, default-down, both-flaky, both-down),
+ * --default-phases / --fallback-phases (segundo:latencia_ms:taxa_de_falha[:down],...), --default-port, --fallback-port,
+ * --drain-seconds, --start-api, --routing (health, profit; só com --start-api).
+ */
+public class LoadTest {
+
+    private static final BigDecimal DEFAULT_FEE = new BigDecimal("0.05");
+    private static final BigDecimal FALLBACK_FEE = new BigDecimal("0.15");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int requestsPerSecond = Integer.parseInt(options.getOrDefault("rps", "250"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int drainSeconds = Integer.parseInt(options.getOrDefault("drain-seconds", "10"));
+        String amount = options.getOrDefault("amount", "19.90");
+        Scenario scenario = Scenario.of(options.getOrDefault("scenario", "steady"),
+                options.get("default-phases"), options.get("fallback-phases"));
+
+        StubProcessor defaultProcessor = new StubProcessor("default",
+                Integer.parseInt(options.getOrDefault("default-port", "8001")), DEFAULT_FEE, scenario.defaultPhases());
+        StubProcessor fallbackProcessor = new StubProcessor("fallback",
+                Integer.parseInt(options.getOrDefault("fallback-port", "8002")), FALLBACK_FEE, scenario.fallbackPhases());
+        defaultProcessor.start();
+        fallbackProcessor.start();
+
+        ConfigurableApplicationContext api = null;
+        String apiUrl = options.getOrDefault("api-url", "http://localhost:9999");
+        if (options.containsKey("start-api")) {
+            api = SpringApplication.run(ApiPaymentProcessorThreadsApplication.class,
+                    "--server.port=0",
+                    "--app.payment-processor.default.url=" + defaultProcessor.url(),
+                    "--app.payment-processor.fallback.url=" + fallbackProcessor.url(),
+                    "--app.payment-summary.peers=",
+                    "--app.payment-routing.strategy=" + options.getOrDefault("routing", "health"));
+            apiUrl = "http://localhost:" + api.getEnvironment().getProperty("local.server.port");
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        try {
+            purge(httpClient, apiUrl);
+            System.out.printf("Scenario %s: %d req/s for %d s against %s%n", scenario.name(), requestsPerSecond, durationSeconds, apiUrl);
+
+            OpenLoopGenerator generator = new OpenLoopGenerator(httpClient, apiUrl, requestsPerSecond, durationSeconds,
+                    amount, Duration.ofSeconds(10));
+            Instant from = Instant.now();
+            defaultProcessor.resetClock();
+            fallbackProcessor.resetClock();
+            generator.run();
+
+            TimeUnit.SECONDS.sleep(drainSeconds);
+            Instant to = Instant.now();
+            report(generator, summary(httpClient, apiUrl, from, to),
+                    defaultProcessor.totals(from, to), fallbackProcessor.totals(from, to));
+        } finally {
+            if (api != null) {
+                api.close();
+            }
+            defaultProcessor.stop();
+            fallbackProcessor.stop();
+        }
+    }
+
+    private static void report(OpenLoopGenerator generator, PaymentSummaryGetResponse apiSummary,
+                               StubProcessor.Totals defaultTotals, StubProcessor.Totals fallbackTotals) {
+        long[] latencies = generator.latenciesNanos().clone();
+        Arrays.sort(latencies);
+        double seconds = generator.elapsedNanos() / 1e9;
+
+        System.out.println();
+        System.out.println("== Ingest ==");
+        System.out.printf("requests: %d  accepted: %d  rejected: %d  errors: %d%n",
+                latencies.length, generator.accepted(), generator.rejected(), generator.errors());
+        System.out.printf("throughput: %.1f req/s%n", latencies.length / seconds);
+        System.out.printf("latency p50: %.2f ms  p99: %.2f ms  p99.9: %.2f ms  max: %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+
+        BigDecimal defaultNet = defaultTotals.amount().subtract(defaultTotals.amount().multiply(DEFAULT_FEE));
+        BigDecimal fallbackNet = fallbackTotals.amount().subtract(fallbackTotals.amount().multiply(FALLBACK_FEE));
+        System.out.println();
+        System.out.println("== Processors ==");
+        System.out.printf("default:  %d payments, %s gross%n", defaultTotals.requests(), defaultTotals.amount());
+        System.out.printf("fallback: %d payments, %s gross%n", fallbackTotals.requests(), fallbackTotals.amount());
+        System.out.printf("profit after fees: %s%n", defaultNet.add(fallbackNet).setScale(2, java.math.RoundingMode.HALF_EVEN));
+
+        System.out.println();
+        System.out.println("== Summary consistency ==");
+        boolean consistent = compare("default", apiSummary.getDefaultApi(), defaultTotals)
+                & compare("fallback", apiSummary.getFallbackApi(), fallbackTotals);
+        System.out.println(consistent ? "API summary matches the processors" : "API summary DIVERGES from the processors");
+    }
+
+    private static boolean compare(String name, SummaryDetailsResponse api, StubProcessor.Totals processor) {
+        boolean matches = api.getTotalRequests() == processor.requests()
+                && api.getTotalAmount().compareTo(processor.amount()) == 0;
+        System.out.printf("%-8s api: %d / %s  processor: %d / %s  %s%n", name,
+                api.getTotalRequests(), api.getTotalAmount(), processor.requests(), processor.amount(),
+                matches ? "ok" : "MISMATCH");
+        return matches;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.clamp(index, 0, sortedNanos.length - 1)] / 1e6;
+    }
+
+    private static void purge(HttpClient httpClient, String apiUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + "/purge-payments"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static PaymentSummaryGetResponse summary(HttpClient httpClient, String apiUrl, Instant from, Instant to) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + "/payments-summary?from=" + from + "&to=" + to))
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+        return objectMapper.readValue(response.body(), PaymentSummaryGetResponse.class);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
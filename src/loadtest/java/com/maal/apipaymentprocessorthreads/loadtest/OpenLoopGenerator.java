@@ -0,0 +1,103 @@
+package com.maal.apipaymentprocessorthreads.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta: as requisições saem nos instantes planejados pela taxa alvo,
+ * independentemente de as anteriores já terem respondido. A latência é medida a partir do instante
+ * planejado, de modo que atrasos do próprio gerador ou da API não escondem a fila (coordinated omission).
+ */
+public class OpenLoopGenerator {
+
+    private final HttpClient httpClient;
+    private final URI paymentsUri;
+    private final int requestsPerSecond;
+    private final int durationSeconds;
+    private final String amount;
+    private final Duration requestTimeout;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private long[] latenciesNanos;
+    private long elapsedNanos;
+
+    public OpenLoopGenerator(HttpClient httpClient, String apiUrl, int requestsPerSecond, int durationSeconds,
+                             String amount, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.paymentsUri = URI.create(apiUrl + "/payments");
+        this.requestsPerSecond = requestsPerSecond;
+        this.durationSeconds = durationSeconds;
+        this.amount = amount;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public void run() throws InterruptedException {
+        int total = requestsPerSecond * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        latenciesNanos = new long[total];
+        CountDownLatch completed = new CountDownLatch(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(i, intendedStart, completed);
+        }
+        completed.await(requestTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    private void send(int index, long intendedStart, CountDownLatch completed) {
+        String body = "{\"correlationId\":\"" + UUID.randomUUID() + "\",\"amount\":" + amount + "}";
+        HttpRequest request = HttpRequest.newBuilder(paymentsUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    latenciesNanos[index] = System.nanoTime() - intendedStart;
+                    if (error != null) {
+                        errors.increment();
+                    } else if (response.statusCode() == 200) {
+                        accepted.increment();
+                    } else {
+                        rejected.increment();
+                    }
+                    completed.countDown();
+                });
+    }
+
+    public long[] latenciesNanos() {
+        return latenciesNanos;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package com.maal.apipaymentprocessorthreads.loadtest;
+
+/**
+ * Comportamento de um processor stub a partir de {@code startSecond} do teste.
+ *
+ * @param latencyMillis   atraso aplicado em cada POST /payments
+ * @param failureRate     fração (0..1) de POST /payments respondidos com 500
+ * @param healthFailing   valor de {@code failing} no service-health
+ */
+public record ProcessorPhase(int startSecond, long latencyMillis, double failureRate, boolean healthFailing) {
+
+    /**
+     * Formato: {@code segundo:latencia_ms:taxa_de_falha[:down]}, por exemplo {@code 30:800:0.5}.
+     * {@code down} faz o service-health responder failing=true.
+     */
+    static ProcessorPhase parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid phase '" + spec + "', expected second:latencyMs:failureRate[:down]");
+        }
+        return new ProcessorPhase(
+                Integer.parseInt(parts[0]),
+                Long.parseLong(parts[1]),
+                Double.parseDouble(parts[2]),
+                parts.length > 3 && "down".equals(parts[3]));
+    }
+}
@@ -0,0 +1,40 @@
+package com.maal.apipaymentprocessorthreads.loadtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Linha do tempo de fases de cada processor stub. Há cenários prontos para as degradações mais comuns
+ * e qualquer um pode ser sobrescrito com {@code --default-phases} / {@code --fallback-phases}.
+ */
+public record Scenario(String name, List<ProcessorPhase> defaultPhases, List<ProcessorPhase> fallbackPhases) {
+
+    private static final Map<String, String[]> PRESETS = Map.of(
+            "steady", new String[]{"0:10:0", "0:10:0"},
+            "default-slow", new String[]{"0:10:0,20:1200:0,40:10:0", "0:10:0"},
+            "default-down", new String[]{"0:10:0,20:10:1:down,40:10:0", "0:10:0"},
+            "both-flaky", new String[]{"0:10:0.3,30:500:0.6", "0:40:0.3,30:800:0.6"},
+            "both-down", new String[]{"0:10:0,20:10:1:down,40:10:0", "0:10:0,20:10:1:down,40:10:0"}
+    );
+
+    static Scenario of(String name, String defaultPhasesOverride, String fallbackPhasesOverride) {
+        String[] preset = PRESETS.get(name);
+        if (preset == null) {
+            throw new IllegalArgumentException("Unknown scenario '" + name + "', available: " + PRESETS.keySet());
+        }
+        return new Scenario(name,
+                parsePhases(defaultPhasesOverride != null ? defaultPhasesOverride : preset[0]),
+                parsePhases(fallbackPhasesOverride != null ? fallbackPhasesOverride : preset[1]));
+    }
+
+    private static List<ProcessorPhase> parsePhases(String specs) {
+        List<ProcessorPhase> phases = new ArrayList<>();
+        for (String spec : specs.split(",")) {
+            phases.add(ProcessorPhase.parse(spec));
+        }
+        phases.sort(Comparator.comparingInt(ProcessorPhase::startSecond));
+        return List.copyOf(phases);
+    }
+}
@@ -0,0 +1,212 @@
+package com.maal.apipaymentprocessorthreads.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Processor de pagamentos embutido que imita o contrato do processor real:
+ * POST /payments, GET /payments/service-health (limitado a uma chamada a cada 5 s),
+ * GET /payments/{id} e GET /admin/payments-summary. O comportamento segue as fases do cenário.
+ */
+public class StubProcessor {
+
+    private static final Pattern CORRELATION_ID = Pattern.compile("\"correlationId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern AMOUNT = Pattern.compile("\"amount\"\\s*:\\s*([-0-9.]+)");
+    private static final Pattern REQUESTED_AT = Pattern.compile("\"requestedAt\"\\s*:\\s*\"([^\"]+)\"");
+    private static final long HEALTH_RATE_LIMIT_MILLIS = 5000;
+
+    private final String name;
+    private final BigDecimal fee;
+    private final List<ProcessorPhase> phases;
+    private final HttpServer server;
+    private final Map<String, ProcessedPayment> payments = new ConcurrentHashMap<>();
+    private final AtomicLong lastHealthCheck = new AtomicLong();
+    private volatile long startedAtMillis;
+
+    record ProcessedPayment(BigDecimal amount, Instant requestedAt) {
+    }
+
+    public StubProcessor(String name, int port, BigDecimal fee, List<ProcessorPhase> phases) throws IOException {
+        this.name = name;
+        this.fee = fee;
+        this.phases = phases;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/payments", this::handlePayments);
+        this.server.createContext("/admin/payments-summary", this::handleSummary);
+    }
+
+    public void start() {
+        startedAtMillis = System.currentTimeMillis();
+        server.start();
+    }
+
+    /**
+     * Reinicia a linha do tempo das fases; chamado quando a carga começa de fato.
+     */
+    public void resetClock() {
+        startedAtMillis = System.currentTimeMillis();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public BigDecimal fee() {
+        return fee;
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public Totals totals(Instant from, Instant to) {
+        long requests = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        for (ProcessedPayment payment : payments.values()) {
+            if (!payment.requestedAt().isBefore(from) && !payment.requestedAt().isAfter(to)) {
+                requests++;
+                amount = amount.add(payment.amount());
+            }
+        }
+        return new Totals(requests, amount);
+    }
+
+    public record Totals(long requests, BigDecimal amount) {
+    }
+
+    private ProcessorPhase currentPhase() {
+        long elapsedSeconds = (System.currentTimeMillis() - startedAtMillis) / 1000;
+        ProcessorPhase current = phases.getFirst();
+        for (ProcessorPhase phase : phases) {
+            if (phase.startSecond() <= elapsedSeconds) {
+                current = phase;
+            }
+        }
+        return current;
+    }
+
+    private void handlePayments(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if ("POST".equals(method) && "/payments".equals(path)) {
+                processPayment(exchange);
+            } else if ("GET".equals(method) && "/payments/service-health".equals(path)) {
+                serviceHealth(exchange);
+            } else if ("GET".equals(method)) {
+                String correlationId = path.substring(path.lastIndexOf('/') + 1);
+                ProcessedPayment payment = payments.get(correlationId);
+                if (payment == null) {
+                    respond(exchange, 404, "{\"message\":\"payment not found\"}");
+                } else {
+                    respond(exchange, 200, "{\"correlationId\":\"" + correlationId + "\",\"amount\":" + payment.amount()
+                            + ",\"requestedAt\":\"" + payment.requestedAt() + "\"}");
+                }
+            } else {
+                respond(exchange, 404, "{}");
+            }
+        }
+    }
+
+    private void processPayment(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        ProcessorPhase phase = currentPhase();
+        if (phase.latencyMillis() > 0) {
+            try {
+                Thread.sleep(phase.latencyMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ThreadLocalRandom.current().nextDouble() < phase.failureRate()) {
+            respond(exchange, 500, "{\"message\":\"internal server error\"}");
+            return;
+        }
+
+        Matcher correlationId = CORRELATION_ID.matcher(body);
+        Matcher amount = AMOUNT.matcher(body);
+        Matcher requestedAt = REQUESTED_AT.matcher(body);
+        if (!correlationId.find() || !amount.find() || !requestedAt.find()) {
+            respond(exchange, 400, "{\"message\":\"invalid payment\"}");
+            return;
+        }
+        ProcessedPayment previous = payments.putIfAbsent(correlationId.group(1),
+                new ProcessedPayment(new BigDecimal(amount.group(1)), Instant.parse(requestedAt.group(1))));
+        if (previous != null) {
+            respond(exchange, 422, "{\"message\":\"CorrelationId already exists\"}");
+            return;
+        }
+        respond(exchange, 200, "{\"message\":\"payment processed successfully\"}");
+    }
+
+    private void serviceHealth(HttpExchange exchange) throws IOException {
+        long now = System.currentTimeMillis();
+        long last = lastHealthCheck.get();
+        if (now - last < HEALTH_RATE_LIMIT_MILLIS || !lastHealthCheck.compareAndSet(last, now)) {
+            respond(exchange, 429, "{\"message\":\"too many requests\"}");
+            return;
+        }
+        ProcessorPhase phase = currentPhase();
+        respond(exchange, 200, "{\"failing\":" + phase.healthFailing() + ",\"minResponseTime\":" + phase.latencyMillis() + "}");
+    }
+
+    private void handleSummary(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Map<String, String> query = query(exchange.getRequestURI());
+            Totals totals = totals(Instant.parse(query.getOrDefault("from", Instant.EPOCH.toString())),
+                    Instant.parse(query.getOrDefault("to", Instant.now().toString())));
+            respond(exchange, 200, "{\"totalRequests\":" + totals.requests() + ",\"totalAmount\":" + totals.amount()
+                    + ",\"totalFee\":" + totals.amount().multiply(fee) + ",\"feePerTransaction\":" + fee + "}");
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> parameters = new ConcurrentHashMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String pair : uri.getRawQuery().split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -7,6 +7,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class ApiPaymentProcessorThreadsApplication {
 
     public static void main(String[] args) {
+        // Mantém as conexões ociosas com os processors abertas entre rajadas; precisa ser definido antes do primeiro HttpClient
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", "600");
+        }
         SpringApplication.run(ApiPaymentProcessorThreadsApplication.class, args);
     }
 
@@ -0,0 +1,80 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de concorrência AIMD guiado pela latência observada.
+ * Cada resposta rápida aumenta o limite em 1/limite (aproximadamente +1 por janela de RTT);
+ * respostas lentas reduzem o limite multiplicativamente e erros reduzem pela metade.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double FAILURE_BACKOFF_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.clamp(initialLimit, minLimit, maxLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > latencyThresholdNanos) {
+            adjust(LATENCY_BACKOFF_RATIO, 0);
+        } else {
+            adjust(1.0, 1.0);
+        }
+    }
+
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        adjust(FAILURE_BACKOFF_RATIO, 0);
+    }
+
+    /**
+     * Devolve a permissão sem ajustar o limite, quando a requisição não chegou a ser enviada.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(double ratio, double increment) {
+        while (true) {
+            long bits = limitBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = Math.clamp(current * ratio + increment / current, minLimit, maxLimit);
+            if (next == current || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
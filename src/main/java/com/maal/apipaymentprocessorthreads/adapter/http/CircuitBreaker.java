@@ -0,0 +1,106 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker por processor: abre após N falhas consecutivas, permanece aberto por um período
+ * e então libera uma única requisição de prova (half-open) antes de fechar novamente.
+ * Cada transição inicia uma nova época; a permissão carrega a época em que foi obtida e resultados
+ * de épocas anteriores (requisições lentas que terminam depois da transição) são ignorados.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Retornado por {@link #tryAcquire()} quando a requisição não deve ser enviada.
+     */
+    public static final long NO_PERMIT = -1;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private record Phase(State state, long epoch, boolean probing) {
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(new Phase(State.CLOSED, 0, false));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtMillis;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * Retorna a permissão (a época atual) a ser passada para {@link #onSuccess(long)}, {@link #onFailure(long)}
+     * ou {@link #release(long)}, ou {@link #NO_PERMIT} se o circuito não libera a requisição.
+     */
+    public long tryAcquire() {
+        while (true) {
+            Phase current = phase.get();
+            if (current.state() == State.CLOSED) {
+                return current.epoch();
+            }
+            if (current.state() == State.OPEN) {
+                if (System.currentTimeMillis() - openedAtMillis < openDurationMillis) {
+                    return NO_PERMIT;
+                }
+                phase.compareAndSet(current, new Phase(State.HALF_OPEN, current.epoch() + 1, false));
+                continue;
+            }
+            if (current.probing()) {
+                return NO_PERMIT;
+            }
+            if (phase.compareAndSet(current, new Phase(State.HALF_OPEN, current.epoch(), true))) {
+                return current.epoch();
+            }
+        }
+    }
+
+    public void onSuccess(long permit) {
+        Phase current = phase.get();
+        if (current.epoch() != permit) {
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (current.state() == State.HALF_OPEN) {
+            phase.compareAndSet(current, new Phase(State.CLOSED, current.epoch() + 1, false));
+        }
+    }
+
+    public void onFailure(long permit) {
+        Phase current = phase.get();
+        if (current.epoch() != permit) {
+            return;
+        }
+        if (current.state() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(current);
+        }
+    }
+
+    /**
+     * Devolve a permissão obtida em {@link #tryAcquire()} quando a requisição não chegou a ser enviada.
+     */
+    public void release(long permit) {
+        Phase current = phase.get();
+        if (current.state() == State.HALF_OPEN && current.epoch() == permit && current.probing()) {
+            phase.compareAndSet(current, new Phase(State.HALF_OPEN, permit, false));
+        }
+    }
+
+    public State state() {
+        return phase.get().state();
+    }
+
+    private void open(Phase from) {
+        openedAtMillis = System.currentTimeMillis();
+        if (phase.compareAndSet(from, new Phase(State.OPEN, from.epoch() + 1, false))) {
+            consecutiveFailures.set(0);
+        }
+    }
+}
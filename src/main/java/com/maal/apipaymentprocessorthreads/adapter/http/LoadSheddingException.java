@@ -0,0 +1,13 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+/**
+ * A chamada ao processor foi recusada localmente, sem chegar a ele (circuito aberto, limite de concorrência
+ * ou pool de conexões saturado). Não é uma falha do processor: o pagamento volta a ser agendado sem consumir
+ * um retry e nada é registrado nas estatísticas de latência e sucesso.
+ */
+public class LoadSheddingException extends RuntimeException {
+
+    public LoadSheddingException(String message) {
+        super(message, null, false, false);
+    }
+}
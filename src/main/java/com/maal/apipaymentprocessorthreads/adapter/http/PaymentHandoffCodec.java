@@ -0,0 +1,44 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Formato binário dos pagamentos repassados entre instâncias: 32 bytes por pagamento
+ * (UUID em dois longs, valor em centavos e requestedAt em epoch millis).
+ */
+public final class PaymentHandoffCodec {
+
+    public static final int RECORD_SIZE = 4 * Long.BYTES;
+
+    private PaymentHandoffCodec() {
+    }
+
+    public static byte[] toBytes(List<Payment> payments) {
+        ByteBuffer buffer = ByteBuffer.allocate(payments.size() * RECORD_SIZE);
+        for (Payment payment : payments) {
+            buffer.putLong(payment.correlationId().getMostSignificantBits())
+                    .putLong(payment.correlationId().getLeastSignificantBits())
+                    .putLong(payment.amountInCents())
+                    .putLong(payment.requestedAt().toEpochMilli());
+        }
+        return buffer.array();
+    }
+
+    public static List<Payment> fromBytes(byte[] bytes) {
+        if (bytes.length % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Invalid payment handoff payload size: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        List<Payment> payments = new ArrayList<>(bytes.length / RECORD_SIZE);
+        while (buffer.hasRemaining()) {
+            payments.add(new Payment(new UUID(buffer.getLong(), buffer.getLong()), buffer.getLong(), Instant.ofEpochMilli(buffer.getLong())));
+        }
+        return payments;
+    }
+}
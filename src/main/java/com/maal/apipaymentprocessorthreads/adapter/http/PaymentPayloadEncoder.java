@@ -0,0 +1,120 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializa um {@link Payment} direto para bytes, sem ObjectMapper nem Strings intermediárias:
+ * {@code {"correlationId":"<uuid>","amount":<reais>.<centavos>,"requestedAt":"yyyy-MM-ddTHH:mm:ss.SSSZ"}}.
+ */
+public final class PaymentPayloadEncoder {
+
+    private static final byte[] CORRELATION_ID = "{\"correlationId\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AMOUNT = "\",\"amount\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUESTED_AT = ",\"requestedAt\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private PaymentPayloadEncoder() {
+    }
+
+    public static void encode(Payment payment, PaymentPayload payload) {
+        byte[] buffer = payload.buffer();
+        int position = put(buffer, 0, CORRELATION_ID);
+        position = putUuid(buffer, position, payment.correlationId().getMostSignificantBits(),
+                payment.correlationId().getLeastSignificantBits());
+        position = put(buffer, position, AMOUNT);
+        position = putCents(buffer, position, payment.amountInCents());
+        position = put(buffer, position, REQUESTED_AT);
+        position = putInstant(buffer, position, payment.requestedAt().toEpochMilli());
+        payload.setLength(put(buffer, position, END));
+    }
+
+    private static int put(byte[] buffer, int position, byte[] constant) {
+        System.arraycopy(constant, 0, buffer, position, constant.length);
+        return position + constant.length;
+    }
+
+    private static int putUuid(byte[] buffer, int position, long most, long least) {
+        position = putHex(buffer, position, most >>> 32, 8);
+        buffer[position++] = '-';
+        position = putHex(buffer, position, most >>> 16, 4);
+        buffer[position++] = '-';
+        position = putHex(buffer, position, most, 4);
+        buffer[position++] = '-';
+        position = putHex(buffer, position, least >>> 48, 4);
+        buffer[position++] = '-';
+        return putHex(buffer, position, least, 12);
+    }
+
+    private static int putHex(byte[] buffer, int position, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return position + digits;
+    }
+
+    private static int putCents(byte[] buffer, int position, long cents) {
+        if (cents < 0) {
+            buffer[position++] = '-';
+            cents = -cents;
+        }
+        position = putLong(buffer, position, cents / 100);
+        buffer[position++] = '.';
+        return putDigits(buffer, position, cents % 100, 2);
+    }
+
+    private static int putLong(byte[] buffer, int position, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        return putDigits(buffer, position, value, digits);
+    }
+
+    private static int putDigits(byte[] buffer, int position, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * Data civil em UTC a partir dos dias desde a época (algoritmo days_from_civil de Howard Hinnant, invertido).
+     */
+    private static int putInstant(byte[] buffer, int position, long epochMilli) {
+        long days = Math.floorDiv(epochMilli, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMilli, MILLIS_PER_DAY);
+
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        position = putDigits(buffer, position, year, 4);
+        buffer[position++] = '-';
+        position = putDigits(buffer, position, month, 2);
+        buffer[position++] = '-';
+        position = putDigits(buffer, position, day, 2);
+        buffer[position++] = 'T';
+        position = putDigits(buffer, position, millisOfDay / 3_600_000, 2);
+        buffer[position++] = ':';
+        position = putDigits(buffer, position, millisOfDay / 60_000 % 60, 2);
+        buffer[position++] = ':';
+        position = putDigits(buffer, position, millisOfDay / 1000 % 60, 2);
+        buffer[position++] = '.';
+        position = putDigits(buffer, position, millisOfDay % 1000, 3);
+        buffer[position++] = 'Z';
+        return position;
+    }
+}
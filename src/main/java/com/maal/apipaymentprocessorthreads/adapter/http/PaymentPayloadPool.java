@@ -0,0 +1,29 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.MpmcRingBuffer;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool sem locks de {@link PaymentPayload}. Um payload só volta ao pool depois que o processor
+ * confirmou o pagamento; quando o pool está vazio um novo buffer é alocado e, quando cheio, o devolvido é descartado.
+ */
+@Component
+public class PaymentPayloadPool {
+
+    private final MpmcRingBuffer<PaymentPayload> pool;
+
+    public PaymentPayloadPool(@Value("${app.payment-payload.pool-size}") int poolSize) {
+        this.pool = new MpmcRingBuffer<>(poolSize);
+    }
+
+    public PaymentPayload acquire() {
+        PaymentPayload payload = pool.poll();
+        return payload != null ? payload : new PaymentPayload();
+    }
+
+    public void release(PaymentPayload payload) {
+        pool.offer(payload);
+    }
+}
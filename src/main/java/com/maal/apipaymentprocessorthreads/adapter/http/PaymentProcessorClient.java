@@ -2,56 +2,101 @@ package com.maal.apipaymentprocessorthreads.adapter.http;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentProcessorManualClient;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 
-import static java.net.http.HttpRequest.BodyPublishers.ofString;
+import static java.net.http.HttpRequest.BodyPublishers.ofByteArray;
 import static java.time.Duration.ofMillis;
 
+/**
+ * Client síncrono de um processor: cada chamada espera a resposta do {@link ProcessorTransport}.
+ * O chamador é um worker em virtual thread, que fica estacionado durante a chamada sem prender o carrier.
+ */
 public class PaymentProcessorClient implements PaymentProcessorManualClient {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentProcessorClient.class);
-    private static final Duration TIMEOUT = ofMillis(10000);
+    private static final Duration HEALTH_TIMEOUT = ofMillis(2000);
     private final String baseUrl;
-    private final HttpClient httpClient;
+    private final ProcessorTransport transport;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final URI paymentsUri;
 
 
-    public PaymentProcessorClient(String baseUrl, HttpClient httpClient) {
-        this.baseUrl = baseUrl;
-        this.httpClient = httpClient;
+    public PaymentProcessorClient(ProcessorTransport transport, ObjectMapper objectMapper, Duration timeout) {
+        this.baseUrl = transport.baseUrl();
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.paymentsUri = URI.create(baseUrl + "/payments");
     }
 
+    /**
+     * Falhas viram false, exceto a saturação do transporte, que é propagada como
+     * {@link ProcessorTransport.TransportSaturatedException}: a requisição nem chegou ao processor.
+     */
     @Override
-    public boolean processPayment(String requestBody) {
+    public boolean processPayment(PaymentPayload payload) {
         try {
-            String url = baseUrl + "/payments";
-
             HttpRequest request = HttpRequest.newBuilder()
-                    .timeout(TIMEOUT)
-                    .uri(URI.create(url))
-                    .POST(ofString(requestBody))
+                    .timeout(timeout)
+                    .uri(paymentsUri)
+                    .POST(ofByteArray(payload.buffer(), 0, payload.length()))
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = transport.send(request, HttpResponse.BodyHandlers.ofString()).join();
 
             return isSuccessfulResponse(response.statusCode(), response.body());
         }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof ProcessorTransport.TransportSaturatedException saturated) {
+                throw saturated;
+            }
+            logger.warn("Processor Client error: {}", e.getMessage());
+            return false;
+        }
         catch (Exception e) {
             logger.warn("Processor Client error: {}", e.getMessage());
             return false;
         }
     }
 
+    @Override
+    public Optional<HealthStatus> serviceHealth() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(HEALTH_TIMEOUT)
+                    .uri(URI.create(baseUrl + "/payments/service-health"))
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = transport.send(request, HttpResponse.BodyHandlers.ofString()).join();
+
+            if (response.statusCode() != 200) {
+                logger.debug("Health check for {} returned status {}", baseUrl, response.statusCode());
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readValue(response.body(), HealthStatus.class));
+        }
+        catch (Exception e) {
+            logger.warn("Processor health check error: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     private boolean isSuccessfulResponse(int statusCode, String responseBody) {
         return isSuccessful200Response(statusCode, responseBody) || isDuplicatePayment422Response(statusCode, responseBody);
     }
@@ -0,0 +1,75 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repassa a um peer os pagamentos aceitos que esta instância não conseguiu processar antes de desligar.
+ * Os peers são tentados em ordem até que um aceite o lote inteiro.
+ */
+@Component
+public class PeerHandoffClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerHandoffClient.class);
+
+    private final HttpClient httpClient;
+    private final List<String> peerUrls;
+    private final Duration timeout;
+
+    public PeerHandoffClient(HttpClient httpClient,
+                             @Value("${app.payment-summary.peers}") String peers,
+                             @Value("${app.shutdown.handoff-timeout-ms}") long timeoutMillis) {
+        this.httpClient = httpClient;
+        this.peerUrls = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public boolean hasPeers() {
+        return !peerUrls.isEmpty();
+    }
+
+    /**
+     * Retorna true se algum peer confirmou o recebimento de todos os pagamentos.
+     */
+    public boolean handOff(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return true;
+        }
+        byte[] body = PaymentHandoffCodec.toBytes(payments);
+        for (String peerUrl : peerUrls) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(timeout)
+                    .uri(URI.create(peerUrl + "/internal/payments/handoff"))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return true;
+                }
+                logger.warn("Peer {} answered payment handoff with status {}", peerUrl, response.statusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                logger.warn("Could not hand off payments to peer {}: {}", peerUrl, e.getMessage());
+            }
+        }
+        return false;
+    }
+}
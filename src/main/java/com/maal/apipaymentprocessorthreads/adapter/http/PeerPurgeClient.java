@@ -0,0 +1,88 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Coordena o purge com as outras instâncias: {@code prepare} abre o fence de purge de cada peer
+ * (nova geração, gravações pausadas), {@code commit} descarta o estado anterior e fecha o fence depois que
+ * as coleções foram recriadas e {@code abort} fecha o fence mantendo o estado, quando o purge é abortado.
+ */
+@Component
+public class PeerPurgeClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerPurgeClient.class);
+
+    private final HttpClient httpClient;
+    private final List<String> peerUrls;
+    private final Duration timeout;
+
+    public PeerPurgeClient(HttpClient httpClient,
+                           @Value("${app.payment-summary.peers}") String peers,
+                           @Value("${app.purge.fence-timeout-ms}") long timeoutMillis) {
+        this.httpClient = httpClient;
+        this.peerUrls = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * Retorna os peers que confirmaram o fence.
+     */
+    public List<String> prepare() {
+        return send("/internal/purge/prepare", peerUrls);
+    }
+
+    public void commit() {
+        send("/internal/purge/commit", peerUrls);
+    }
+
+    /**
+     * Fecha o fence dos peers informados sem descartar o estado deles; retorna os que confirmaram.
+     */
+    public List<String> abort(List<String> preparedPeers) {
+        return send("/internal/purge/abort", preparedPeers);
+    }
+
+    public List<String> peers() {
+        return peerUrls;
+    }
+
+    private List<String> send(String path, List<String> urls) {
+        List<String> acknowledged = new ArrayList<>();
+        for (String peerUrl : urls) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(timeout)
+                    .uri(URI.create(peerUrl + path))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    acknowledged.add(peerUrl);
+                } else {
+                    logger.warn("Peer {} answered {} with status {}", peerUrl, path, response.statusCode());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return acknowledged;
+            } catch (Exception e) {
+                logger.warn("Could not call {} on peer {}: {}", path, peerUrl, e.getMessage());
+            }
+        }
+        return acknowledged;
+    }
+}
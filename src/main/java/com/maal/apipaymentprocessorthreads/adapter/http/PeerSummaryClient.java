@@ -0,0 +1,82 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta em paralelo os totais locais das outras instâncias da API.
+ * Se qualquer peer não responder dentro do prazo, o resultado é vazio e o chamador
+ * deve recorrer ao MongoDB.
+ */
+@Component
+public class PeerSummaryClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerSummaryClient.class);
+
+    private final HttpClient httpClient;
+    private final List<String> peerUrls;
+    private final Duration timeout;
+
+    public PeerSummaryClient(HttpClient httpClient,
+                             @Value("${app.payment-summary.peers}") String peers,
+                             @Value("${app.payment-summary.peer-timeout-ms}") long timeoutMillis) {
+        this.httpClient = httpClient;
+        this.peerUrls = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public Optional<PaymentTotals> fetchTotals(Instant from, Instant to) {
+        if (peerUrls.isEmpty()) {
+            return Optional.of(PaymentTotals.EMPTY);
+        }
+
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(peerUrls.size());
+        for (String peerUrl : peerUrls) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(timeout)
+                    .uri(URI.create(peerUrl + "/internal/payments-summary?from=" + from + "&to=" + to))
+                    .GET()
+                    .build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        try {
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            PaymentTotals totals = PaymentTotals.EMPTY;
+            for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+                HttpResponse<byte[]> peerResponse = response.join();
+                if (peerResponse.statusCode() != 200) {
+                    logger.warn("Peer {} answered summary with status {}", peerResponse.uri(), peerResponse.statusCode());
+                    return Optional.empty();
+                }
+                totals = totals.plus(PaymentTotals.fromBytes(peerResponse.body()));
+            }
+            return Optional.of(totals);
+        } catch (Exception e) {
+            logger.warn("Peer summary not available within {} ms: {}", timeout.toMillis(), e.getMessage());
+            responses.forEach(response -> response.cancel(true));
+            return Optional.empty();
+        }
+    }
+}
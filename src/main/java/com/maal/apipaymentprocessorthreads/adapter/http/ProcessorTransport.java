@@ -0,0 +1,128 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transporte HTTP dedicado a um processor. Cada processor tem o seu próprio HttpClient (e portanto o seu
+ * próprio pool de conexões keep-alive) e no máximo {@code connections} requisições em voo; em HTTP/1.1
+ * isso limita o número de sockets abertos e garante que todos sejam reaproveitados.
+ * As conexões são abertas antecipadamente com requisições leves, para que o primeiro pico não pague o handshake.
+ */
+public class ProcessorTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessorTransport.class);
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(2);
+
+    private final String name;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final int connections;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder waitedForConnection = new LongAdder();
+    private final LongAdder saturated = new LongAdder();
+
+    public ProcessorTransport(String name, String baseUrl, HttpClient httpClient, int connections, Duration acquireTimeout) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+        this.connections = connections;
+        this.permits = new Semaphore(connections);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Abre as {@code connections} conexões em paralelo. A consulta de um pagamento inexistente é barata
+     * no processor e não conta no limite do service-health.
+     */
+    public void warmUp() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(WARM_UP_TIMEOUT)
+                    .uri(URI.create(baseUrl + "/payments/" + UUID.randomUUID()))
+                    .GET()
+                    .build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        long opened = responses.stream()
+                .map(response -> response.handle((ok, error) -> error == null))
+                .filter(CompletableFuture::join)
+                .count();
+        logger.info("Processor transport {} warmed up {} of {} connections", name, opened, connections);
+    }
+
+    /**
+     * Envia a requisição com {@code sendAsync} e devolve o future da resposta. A chamada não é totalmente
+     * não bloqueante: quando todas as conexões estão ocupadas, a thread chamadora espera no máximo
+     * {@code acquire-timeout-ms} por uma delas (se o prazo expirar a requisição falha imediatamente e conta
+     * como saturação), e o {@link PaymentProcessorClient} espera a resposta com {@code join()}.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        requests.increment();
+        try {
+            if (!permits.tryAcquire()) {
+                waitedForConnection.increment();
+                if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    saturated.increment();
+                    return CompletableFuture.failedFuture(new TransportSaturatedException(name));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            return httpClient.sendAsync(request, bodyHandler)
+                    .whenComplete((response, error) -> permits.release());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public Map<String, Object> metrics() {
+        int inUse = connections - permits.availablePermits();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("connections", connections);
+        metrics.put("connectionsInUse", inUse);
+        metrics.put("utilization", (double) inUse / connections);
+        metrics.put("requests", requests.sum());
+        metrics.put("waitedForConnection", waitedForConnection.sum());
+        metrics.put("saturated", saturated.sum());
+        return metrics;
+    }
+
+    public static class TransportSaturatedException extends LoadSheddingException {
+
+        public TransportSaturatedException(String name) {
+            super("No connection available to processor " + name);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.maal.apipaymentprocessorthreads.adapter.http;
+
+import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentProcessorManualClient;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator aplicado a cada {@link PaymentProcessorClient}: rejeita imediatamente, com {@link LoadSheddingException},
+ * quando o circuito está aberto ou quando o número de requisições em voo já atingiu o limite adaptativo.
+ * A saturação do pool de conexões local também não diz nada sobre o processor: as permissões são devolvidas sem
+ * registrar falha e a exceção segue para quem reagenda o pagamento.
+ */
+public class ResilientPaymentProcessorClient implements PaymentProcessorManualClient {
+
+    private final String name;
+    private final PaymentProcessorManualClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LongAdder rejectedByCircuitBreaker = new LongAdder();
+    private final LongAdder rejectedByLimiter = new LongAdder();
+    private final LongAdder shedBySaturation = new LongAdder();
+
+    public ResilientPaymentProcessorClient(String name,
+                                           PaymentProcessorManualClient delegate,
+                                           CircuitBreaker circuitBreaker,
+                                           AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.name = name;
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public boolean processPayment(PaymentPayload payload) {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            rejectedByCircuitBreaker.increment();
+            throw new LoadSheddingException("Circuit breaker open for processor " + name);
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            circuitBreaker.release(permit);
+            rejectedByLimiter.increment();
+            throw new LoadSheddingException("Concurrency limit reached for processor " + name);
+        }
+
+        long start = System.nanoTime();
+        boolean processed;
+        try {
+            processed = delegate.processPayment(payload);
+        } catch (ProcessorTransport.TransportSaturatedException e) {
+            concurrencyLimiter.release();
+            circuitBreaker.release(permit);
+            shedBySaturation.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            concurrencyLimiter.onFailure();
+            circuitBreaker.onFailure(permit);
+            throw e;
+        }
+        if (processed) {
+            concurrencyLimiter.onSuccess(System.nanoTime() - start);
+            circuitBreaker.onSuccess(permit);
+        } else {
+            concurrencyLimiter.onFailure();
+            circuitBreaker.onFailure(permit);
+        }
+        return processed;
+    }
+
+    @Override
+    public Optional<HealthStatus> serviceHealth() {
+        return delegate.serviceHealth();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("circuitBreakerState", circuitBreaker.state().name());
+        metrics.put("concurrencyLimit", concurrencyLimiter.limit());
+        metrics.put("inFlight", concurrencyLimiter.inFlight());
+        metrics.put("rejectedByCircuitBreaker", rejectedByCircuitBreaker.sum());
+        metrics.put("rejectedByLimiter", rejectedByLimiter.sum());
+        metrics.put("shedBySaturation", shedBySaturation.sum());
+        return metrics;
+    }
+}
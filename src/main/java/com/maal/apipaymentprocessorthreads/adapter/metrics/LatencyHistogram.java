@@ -0,0 +1,53 @@
+package com.maal.apipaymentprocessorthreads.adapter.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latência com buckets fixos, no formato de histogramas do Prometheus.
+ * {@link #record(long)} só incrementa {@link LongAdder}s já alocados, sem locks e sem alocar no caminho quente.
+ */
+public class LatencyHistogram {
+
+    static final long[] BUCKET_BOUNDS_NANOS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Contagens cumulativas por bucket; a última posição é o bucket +Inf e portanto o total de amostras.
+     */
+    long[] cumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            counts[i] = cumulative;
+        }
+        return counts;
+    }
+
+    long sumNanos() {
+        return sumNanos.sum();
+    }
+}
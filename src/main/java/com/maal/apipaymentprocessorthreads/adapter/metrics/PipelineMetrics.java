@@ -0,0 +1,192 @@
+package com.maal.apipaymentprocessorthreads.adapter.metrics;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de cada estágio do pipeline de pagamentos: ingestão, espera na fila,
+ * chamada ao processor, retries, gravação no MongoDB e consulta de resumo.
+ * Todos os métodos {@code record*} são livres de alocação e de locks.
+ */
+@Component
+public class PipelineMetrics {
+
+    private static final PaymentProcessorType[] PROCESSOR_TYPES = PaymentProcessorType.values();
+    private static final ProcessorRoute[] ROUTES = ProcessorRoute.values();
+    private static final HedgeResult[] HEDGE_RESULTS = HedgeResult.values();
+
+    /**
+     * FIRED: hedge disparado; WON: o hedge respondeu com sucesso antes da chamada original.
+     */
+    public enum HedgeResult {
+        FIRED, WON
+    }
+
+    private final LongAdder ingestAccepted = new LongAdder();
+    private final LongAdder ingestRejected = new LongAdder();
+    private final LongAdder ingestDuplicates = new LongAdder();
+    private final LongAdder workerDuplicates = new LongAdder();
+    private final LatencyHistogram ingestLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram[] processorCallLatency = new LatencyHistogram[PROCESSOR_TYPES.length];
+    private final LongAdder[] processorSuccesses = new LongAdder[PROCESSOR_TYPES.length];
+    private final LongAdder[] processorFailures = new LongAdder[PROCESSOR_TYPES.length];
+    private final LongAdder[] processorShed = new LongAdder[PROCESSOR_TYPES.length];
+    private final LongAdder[] routeDecisions = new LongAdder[ROUTES.length];
+    private final LongAdder[] hedges = new LongAdder[HEDGE_RESULTS.length];
+    private final LongAdder[] retriesByCount;
+    private final LongAdder retriesExhausted = new LongAdder();
+    private final LongAdder retriesRejected = new LongAdder();
+    private final LatencyHistogram mongoInsertLatency = new LatencyHistogram();
+    private final LongAdder mongoInsertedDocuments = new LongAdder();
+    private final LongAdder mongoInsertFailedDocuments = new LongAdder();
+    private final LongAdder mongoDroppedDocuments = new LongAdder();
+    private final LatencyHistogram summaryLatency = new LatencyHistogram();
+
+    public PipelineMetrics(@Value("${app.payment-processor.max-retries}") int maxRetries) {
+        for (int i = 0; i < PROCESSOR_TYPES.length; i++) {
+            processorCallLatency[i] = new LatencyHistogram();
+            processorSuccesses[i] = new LongAdder();
+            processorFailures[i] = new LongAdder();
+            processorShed[i] = new LongAdder();
+        }
+        for (int i = 0; i < ROUTES.length; i++) {
+            routeDecisions[i] = new LongAdder();
+        }
+        for (int i = 0; i < hedges.length; i++) {
+            hedges[i] = new LongAdder();
+        }
+        this.retriesByCount = new LongAdder[maxRetries + 1];
+        for (int i = 0; i < retriesByCount.length; i++) {
+            retriesByCount[i] = new LongAdder();
+        }
+    }
+
+    public void recordIngest(boolean accepted, long nanos) {
+        (accepted ? ingestAccepted : ingestRejected).increment();
+        ingestLatency.record(nanos);
+    }
+
+    /**
+     * Pagamento duplicado detectado pelo cache de idempotência, na ingestão ou ao ser retirado da fila.
+     */
+    public void recordDuplicate(boolean atIngest) {
+        (atIngest ? ingestDuplicates : workerDuplicates).increment();
+    }
+
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    public void recordProcessorCall(PaymentProcessorType type, boolean processed, long nanos) {
+        int index = type.ordinal();
+        processorCallLatency[index].record(nanos);
+        (processed ? processorSuccesses[index] : processorFailures[index]).increment();
+    }
+
+    /**
+     * Chamada recusada localmente (circuito aberto, limite de concorrência ou transporte saturado): não tem latência.
+     */
+    public void recordShed(PaymentProcessorType type) {
+        processorShed[type.ordinal()].increment();
+    }
+
+    public void recordRoute(ProcessorRoute route) {
+        routeDecisions[route.ordinal()].increment();
+    }
+
+    public void recordHedge(HedgeResult result) {
+        hedges[result.ordinal()].increment();
+    }
+
+    public void recordRetry(int retryCount) {
+        retriesByCount[Math.clamp(retryCount, 0, retriesByCount.length - 1)].increment();
+    }
+
+    public void recordRetriesExhausted() {
+        retriesExhausted.increment();
+    }
+
+    public void recordRetryRejected() {
+        retriesRejected.increment();
+    }
+
+    public void recordMongoInsert(int persistedDocuments, int failedDocuments, long nanos) {
+        mongoInsertLatency.record(nanos);
+        mongoInsertedDocuments.add(persistedDocuments);
+        mongoInsertFailedDocuments.add(failedDocuments);
+    }
+
+    public void recordMongoDrop() {
+        mongoDroppedDocuments.increment();
+    }
+
+    public void recordSummary(long nanos) {
+        summaryLatency.record(nanos);
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.type("payment_ingest_total", "counter")
+                .sample("payment_ingest_total", "result=\"accepted\"", ingestAccepted.sum())
+                .sample("payment_ingest_total", "result=\"rejected\"", ingestRejected.sum());
+        writer.type("payment_duplicates_total", "counter")
+                .sample("payment_duplicates_total", "stage=\"ingest\"", ingestDuplicates.sum())
+                .sample("payment_duplicates_total", "stage=\"worker\"", workerDuplicates.sum());
+        writer.type("payment_ingest_seconds", "histogram")
+                .histogram("payment_ingest_seconds", null, ingestLatency);
+        writer.type("payment_queue_wait_seconds", "histogram")
+                .histogram("payment_queue_wait_seconds", null, queueWait);
+
+        writer.type("payment_processor_calls_total", "counter");
+        for (PaymentProcessorType type : PROCESSOR_TYPES) {
+            String processor = processorLabel(type);
+            writer.sample("payment_processor_calls_total", processor + ",result=\"success\"", processorSuccesses[type.ordinal()].sum())
+                    .sample("payment_processor_calls_total", processor + ",result=\"failure\"", processorFailures[type.ordinal()].sum())
+                    .sample("payment_processor_calls_total", processor + ",result=\"shed\"", processorShed[type.ordinal()].sum());
+        }
+        writer.type("payment_processor_call_seconds", "histogram");
+        for (PaymentProcessorType type : PROCESSOR_TYPES) {
+            writer.histogram("payment_processor_call_seconds", processorLabel(type), processorCallLatency[type.ordinal()]);
+        }
+
+        writer.type("payment_route_decisions_total", "counter");
+        for (ProcessorRoute route : ROUTES) {
+            writer.sample("payment_route_decisions_total", "route=\"" + route.name().toLowerCase(Locale.ROOT) + "\"", routeDecisions[route.ordinal()].sum());
+        }
+
+        writer.type("payment_hedges_total", "counter");
+        for (HedgeResult result : HEDGE_RESULTS) {
+            writer.sample("payment_hedges_total", "result=\"" + result.name().toLowerCase(Locale.ROOT) + "\"", hedges[result.ordinal()].sum());
+        }
+
+        writer.type("payment_retries_total", "counter");
+        for (int retryCount = 0; retryCount < retriesByCount.length; retryCount++) {
+            writer.sample("payment_retries_total", "retry_count=\"" + retryCount + "\"", retriesByCount[retryCount].sum());
+        }
+        writer.type("payment_retries_exhausted_total", "counter")
+                .sample("payment_retries_exhausted_total", null, retriesExhausted.sum());
+        writer.type("payment_retries_rejected_total", "counter")
+                .sample("payment_retries_rejected_total", null, retriesRejected.sum());
+
+        writer.type("payment_mongo_inserted_documents_total", "counter")
+                .sample("payment_mongo_inserted_documents_total", null, mongoInsertedDocuments.sum());
+        writer.type("payment_mongo_insert_failed_documents_total", "counter")
+                .sample("payment_mongo_insert_failed_documents_total", null, mongoInsertFailedDocuments.sum());
+        writer.type("payment_mongo_dropped_documents_total", "counter")
+                .sample("payment_mongo_dropped_documents_total", null, mongoDroppedDocuments.sum());
+        writer.type("payment_mongo_insert_seconds", "histogram")
+                .histogram("payment_mongo_insert_seconds", null, mongoInsertLatency);
+
+        writer.type("payment_summary_seconds", "histogram")
+                .histogram("payment_summary_seconds", null, summaryLatency);
+    }
+
+    private static String processorLabel(PaymentProcessorType type) {
+        return "processor=\"" + type.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+}
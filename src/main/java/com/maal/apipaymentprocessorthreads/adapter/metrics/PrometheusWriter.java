@@ -0,0 +1,113 @@
+package com.maal.apipaymentprocessorthreads.adapter.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monta a resposta do scrape no formato texto do Prometheus (versão 0.0.4).
+ * Usado apenas no endpoint de métricas, fora do caminho quente.
+ */
+public class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder output = new StringBuilder(8192);
+
+    public PrometheusWriter type(String name, String type) {
+        output.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(String name, String labels, long value) {
+        appendName(name, labels).append(value).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(String name, String labels, double value) {
+        appendName(name, labels).append(value).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter gauge(String name, long value) {
+        return type(name, "gauge").sample(name, null, value);
+    }
+
+    public PrometheusWriter histogram(String name, String labels, LatencyHistogram histogram) {
+        long[] counts = histogram.cumulativeCounts();
+        String separator = labels == null ? "" : labels + ",";
+        for (int i = 0; i < LatencyHistogram.BUCKET_BOUNDS_NANOS.length; i++) {
+            sample(name + "_bucket", separator + "le=\"" + LatencyHistogram.BUCKET_BOUNDS_NANOS[i] / 1e9 + "\"", counts[i]);
+        }
+        sample(name + "_bucket", separator + "le=\"+Inf\"", counts[counts.length - 1]);
+        sample(name + "_sum", labels, histogram.sumNanos() / 1e9);
+        sample(name + "_count", labels, counts[counts.length - 1]);
+        return this;
+    }
+
+    /**
+     * Expõe um mapa de métricas de componente (como os de {@code metrics()} dos clients) como gauges,
+     * convertendo as chaves camelCase para snake_case. Valores texto viram um label {@code state} com valor 1.
+     */
+    public PrometheusWriter gauges(String prefix, String labels, Map<String, Object> metrics) {
+        Map<String, Map<String, Object>> metricsByLabels = new LinkedHashMap<>();
+        metricsByLabels.put(labels, metrics);
+        return gauges(prefix, metricsByLabels);
+    }
+
+    /**
+     * Igual a {@link #gauges(String, String, Map)} para várias instâncias do mesmo componente (uma por conjunto
+     * de labels): cada família recebe uma única linha {@code # TYPE}, seguida das amostras de todas as instâncias.
+     */
+    public PrometheusWriter gauges(String prefix, Map<String, Map<String, Object>> metricsByLabels) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Map<String, Object> metrics : metricsByLabels.values()) {
+            keys.addAll(metrics.keySet());
+        }
+        for (String key : keys) {
+            String name = prefix + "_" + snakeCase(key);
+            type(name, "gauge");
+            for (Map.Entry<String, Map<String, Object>> instance : metricsByLabels.entrySet()) {
+                Object value = instance.getValue().get(key);
+                String labels = instance.getKey();
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof Number number) {
+                    sample(name, labels, number.doubleValue());
+                } else {
+                    String separator = labels == null ? "" : labels + ",";
+                    sample(name, separator + "state=\"" + value + "\"", 1);
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return output.toString();
+    }
+
+    private StringBuilder appendName(String name, String labels) {
+        output.append(name);
+        if (labels != null && !labels.isEmpty()) {
+            output.append('{').append(labels).append('}');
+        }
+        return output.append(' ');
+    }
+
+    private static String snakeCase(String camelCase) {
+        StringBuilder snake = new StringBuilder(camelCase.length() + 8);
+        for (int i = 0; i < camelCase.length(); i++) {
+            char c = camelCase.charAt(i);
+            if (Character.isUpperCase(c)) {
+                snake.append('_').append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+}
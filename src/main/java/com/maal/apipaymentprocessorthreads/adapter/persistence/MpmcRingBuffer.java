@@ -0,0 +1,93 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada, multi-produtor/multi-consumidor e sem locks (algoritmo de Dmitry Vyukov).
+ * Cada slot carrega um número de sequência que indica se está livre para escrita ou pronto para leitura,
+ * de modo que produtores e consumidores só disputam um CAS na respectiva posição.
+ */
+public class MpmcRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    public MpmcRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    buffer.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    public E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E element = buffer.get(index);
+                    buffer.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.clamp(size, 0, capacity());
+    }
+
+    /**
+     * Total de posições já reservadas por produtores desde a criação.
+     */
+    public long enqueued() {
+        return enqueuePosition.get();
+    }
+
+    /**
+     * Total de posições já consumidas desde a criação.
+     */
+    public long dequeued() {
+        return dequeuePosition.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
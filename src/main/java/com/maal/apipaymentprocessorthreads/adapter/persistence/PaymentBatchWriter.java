@@ -0,0 +1,267 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PipelineMetrics;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escrita write-behind dos pagamentos processados. Os workers apenas enfileiram o documento;
+ * uma única thread agrupa os documentos e grava com bulk inserts não ordenados,
+ * disparando por tamanho do lote ou após o tempo de linger.
+ */
+@Component
+public class PaymentBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentBatchWriter.class);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long ERROR_BACKOFF_MILLIS = 100;
+    // Códigos de erro de escrita que o servidor pode devolver por indisponibilidade momentânea
+    private static final Set<Integer> TRANSIENT_ERRORS = Set.of(
+            6, 7, 50, 89, 91, 112, 189, 262, 9001, 10107, 11600, 11602, 13435, 13436);
+
+    private final PaymentStorage paymentStorage;
+    private final PipelineMetrics pipelineMetrics;
+    private final PaymentWriteAheadLog writeAheadLog;
+    private final PaymentRollupStore rollupStore;
+    private final MpmcRingBuffer<PaymentDocument> buffer;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long flushTimeoutNanos;
+    private final int maxAttempts;
+    private volatile long flushed;
+    private volatile boolean running = true;
+    private volatile Thread flusher;
+
+    public PaymentBatchWriter(PaymentStorage paymentStorage,
+                              PipelineMetrics pipelineMetrics,
+                              PaymentWriteAheadLog writeAheadLog,
+                              PaymentRollupStore rollupStore,
+                              @Value("${app.payment-writer.capacity}") int capacity,
+                              @Value("${app.payment-writer.batch-size}") int batchSize,
+                              @Value("${app.payment-writer.linger-ms}") long lingerMillis,
+                              @Value("${app.payment-writer.flush-timeout-ms}") long flushTimeoutMillis,
+                              @Value("${app.payment-writer.max-attempts}") int maxAttempts) {
+        this.paymentStorage = paymentStorage;
+        this.pipelineMetrics = pipelineMetrics;
+        this.writeAheadLog = writeAheadLog;
+        this.rollupStore = rollupStore;
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.flushTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(flushTimeoutMillis);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher = Thread.ofVirtual().name("payment-batch-writer").start(this::run);
+        logger.info("Payment batch writer started. Batch size: {}, linger: {} ms",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(lingerNanos));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        awaitFlush();
+        running = false;
+        LockSupport.unpark(flusher);
+    }
+
+    public void write(PaymentDocument paymentDocument) {
+        while (!buffer.offer(paymentDocument)) {
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Barreira de flush: aguarda até que tudo o que foi enfileirado antes da chamada esteja gravado,
+     * limitado por {@code flush-timeout-ms}. Retorna false se o prazo expirar.
+     */
+    public boolean awaitFlush() {
+        long target = buffer.enqueued();
+        if (flushed >= target) {
+            return true;
+        }
+        long deadline = System.nanoTime() + flushTimeoutNanos;
+        LockSupport.unpark(flusher);
+        while (flushed < target) {
+            if (System.nanoTime() >= deadline) {
+                logger.warn("Flush barrier timed out. Pending documents: {}", target - flushed);
+                return false;
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        return true;
+    }
+
+    public int pending() {
+        return (int) (buffer.enqueued() - flushed);
+    }
+
+    private void run() {
+        List<PaymentDocument> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(lingerNanos);
+            }
+            long target = buffer.enqueued();
+            while (buffer.dequeued() < target) {
+                PaymentDocument paymentDocument = buffer.poll();
+                if (paymentDocument == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                batch.add(paymentDocument);
+                if (batch.size() >= batchSize) {
+                    insert(batch);
+                }
+            }
+            insert(batch);
+            flushed = target;
+        }
+    }
+
+    /**
+     * Grava o lote até que todos os documentos estejam persistidos ou descartados e então soma ao rollup, uma única vez
+     * e com um id próprio do lote, tudo o que ele inseriu. Violações do índice único significam que o pagamento já está
+     * gravado e por isso contam como sucesso, mas só entram no rollup se o documento fez parte de uma tentativa com
+     * falha ambígua (exceção sem o resultado de cada documento): nesse caso quem o gravou foi o próprio lote.
+     * <p>
+     * Falhas transitórias são repetidas indefinidamente. As demais têm até {@code max-attempts} tentativas: erros de
+     * escrita contam por documento; exceções do lote inteiro passam a gravar um documento por vez até achar o culpado.
+     * O documento descartado é logado e tem a entrada do WAL marcada, para não travar o flusher.
+     */
+    private void insert(List<PaymentDocument> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ObjectId batchId = new ObjectId();
+        List<PaymentDocument> pending = new ArrayList<>(batch);
+        List<PaymentDocument> inserted = new ArrayList<>(batch.size());
+        Set<PaymentDocument> ambiguous = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<PaymentDocument, Integer> failures = new IdentityHashMap<>();
+        int batchFailures = 0;
+        boolean isolate = false;
+        while (!pending.isEmpty()) {
+            int size = isolate ? 1 : pending.size();
+            List<PaymentDocument> attempt = pending.subList(0, size);
+            List<PaymentDocument> retry = new ArrayList<>();
+            long start = System.nanoTime();
+            try {
+                paymentStorage.insert(attempt);
+                pipelineMetrics.recordMongoInsert(size, 0, System.nanoTime() - start);
+                inserted.addAll(attempt);
+            } catch (BulkOperationException e) {
+                Set<PaymentDocument> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+                int failed = 0;
+                for (BulkWriteError error : e.getErrors()) {
+                    PaymentDocument paymentDocument = attempt.get(error.getIndex());
+                    rejected.add(paymentDocument);
+                    if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                        if (ambiguous.contains(paymentDocument)) {
+                            inserted.add(paymentDocument);
+                        }
+                        continue;
+                    }
+                    failed++;
+                    if (TRANSIENT_ERRORS.contains(error.getCode())
+                            || failures.merge(paymentDocument, 1, Integer::sum) < maxAttempts) {
+                        retry.add(paymentDocument);
+                    } else {
+                        drop(paymentDocument, "write error " + error.getCode() + ": " + error.getMessage());
+                    }
+                }
+                for (PaymentDocument paymentDocument : attempt) {
+                    if (!rejected.contains(paymentDocument)) {
+                        inserted.add(paymentDocument);
+                    }
+                }
+                pipelineMetrics.recordMongoInsert(size - failed, failed, System.nanoTime() - start);
+                if (!retry.isEmpty()) {
+                    logger.warn("Bulk insert failed for {} payments, retrying: {}", retry.size(), e.getMessage());
+                }
+            } catch (Exception e) {
+                pipelineMetrics.recordMongoInsert(0, size, System.nanoTime() - start);
+                ambiguous.addAll(attempt);
+                if (isTransient(e)) {
+                    retry.addAll(attempt);
+                } else if (size > 1) {
+                    retry.addAll(attempt);
+                    if (++batchFailures >= maxAttempts) {
+                        isolate = true;
+                        logger.warn("Bulk insert of {} payments keeps failing, inserting one at a time", size);
+                    }
+                } else if (failures.merge(attempt.getFirst(), 1, Integer::sum) < maxAttempts) {
+                    retry.addAll(attempt);
+                } else {
+                    drop(attempt.getFirst(), e.getMessage());
+                }
+                if (!retry.isEmpty()) {
+                    logger.warn("Bulk insert of {} payments failed, retrying: {}", retry.size(), e.getMessage());
+                }
+            }
+            if (!retry.isEmpty()) {
+                backoff();
+            }
+            retry.addAll(pending.subList(size, pending.size()));
+            pending = retry;
+        }
+        rollupStore.record(batchId, inserted);
+        batch.forEach(this::markPersisted);
+        batch.clear();
+    }
+
+    private void drop(PaymentDocument paymentDocument, String reason) {
+        pipelineMetrics.recordMongoDrop();
+        logger.error("Dropping payment {} after {} failed insert attempts: {}",
+                paymentDocument.getCorrelationId(), maxAttempts, reason);
+    }
+
+    private static boolean isTransient(Exception e) {
+        if (e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoSocketException || cause instanceof MongoTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markPersisted(PaymentDocument paymentDocument) {
+        writeAheadLog.markCompleted(paymentDocument.getWalPosition());
+    }
+
+    private static void backoff() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ERROR_BACKOFF_MILLIS));
+    }
+}
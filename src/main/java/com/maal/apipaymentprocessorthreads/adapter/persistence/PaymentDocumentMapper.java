@@ -0,0 +1,61 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.CompactPaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversão entre o layout original ({@link PaymentDocument}) e o compacto ({@link CompactPaymentDocument}).
+ */
+public final class PaymentDocumentMapper {
+
+    private static final PaymentProcessorType[] PROCESSOR_TYPES = PaymentProcessorType.values();
+
+    private PaymentDocumentMapper() {
+    }
+
+    public static CompactPaymentDocument toCompact(PaymentDocument paymentDocument) {
+        CompactPaymentDocument compact = new CompactPaymentDocument();
+        compact.setId(toBinary(UUID.fromString(paymentDocument.getCorrelationId())));
+        compact.setRequestedAt(paymentDocument.getRequestedAt());
+        compact.setAmountInCents(Amounts.toCents(paymentDocument.getAmount()));
+        compact.setProcessor(paymentDocument.getProcessorType().ordinal());
+        compact.setProcessedBy(paymentDocument.getProcessedBy());
+        return compact;
+    }
+
+    public static PaymentDocument toPaymentDocument(CompactPaymentDocument compact) {
+        PaymentDocument paymentDocument = new PaymentDocument();
+        paymentDocument.setCorrelationId(toUuid(compact.getId()).toString());
+        paymentDocument.setRequestedAt(compact.getRequestedAt());
+        paymentDocument.setAmount(Amounts.toBigDecimal(compact.getAmountInCents()));
+        paymentDocument.setProcessorType(processorType(compact.getProcessor()));
+        paymentDocument.setProcessedBy(compact.getProcessedBy());
+        return paymentDocument;
+    }
+
+    public static PaymentProcessorType processorType(int ordinal) {
+        return PROCESSOR_TYPES[ordinal];
+    }
+
+    /**
+     * UUID como binário subtype 4 (padrão RFC 4122), independente da configuração de uuidRepresentation do driver.
+     */
+    public static Binary toBinary(UUID uuid) {
+        return new Binary(BsonBinarySubType.UUID_STANDARD, ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+    }
+
+    public static UUID toUuid(Binary binary) {
+        ByteBuffer buffer = ByteBuffer.wrap(binary.getData());
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,251 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache de idempotência por correlationId, limitado e particionado em stripes com um lock cada.
+ * O UUID é guardado como dois longs em tabelas de endereçamento aberto (sem objetos por entrada),
+ * com um byte de estado: QUEUED (aceito), IN_FLIGHT (um worker está com ele), COMPLETED_DEFAULT,
+ * COMPLETED_FALLBACK ou REMOVED.
+ * A eviction é geracional: cada stripe tem uma geração atual e uma anterior; quando a atual enche,
+ * a anterior é descartada e a atual passa a ser a anterior. Entradas consultadas na geração anterior
+ * são promovidas, então o que sai é sempre o que ficou mais tempo sem ser tocado.
+ * Ocupa cerca de {@code capacity * 2 * 17} bytes (dois longs e um byte por slot, carga máxima de 0,5),
+ * independentemente do número de pagamentos.
+ */
+@Component
+public class PaymentIdempotencyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIdempotencyCache.class);
+
+    private static final byte EMPTY = 0;
+    private static final byte QUEUED = 1;
+    private static final byte IN_FLIGHT = 2;
+    private static final byte COMPLETED_DEFAULT = 3;
+    private static final byte COMPLETED_FALLBACK = 4;
+    private static final byte REMOVED = 5;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final LongAdder evictions = new LongAdder();
+
+    public PaymentIdempotencyCache(@Value("${app.idempotency.capacity}") int capacity,
+                                   @Value("${app.idempotency.stripes}") int stripeCount) {
+        int stripesPowerOfTwo = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[stripesPowerOfTwo];
+        this.stripeMask = stripesPowerOfTwo - 1;
+        int generationCapacity = Math.max(16, capacity / stripesPowerOfTwo / 2);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(generationCapacity);
+        }
+        logger.info("Payment idempotency cache started. Capacity: {}, stripes: {}", capacity, stripes.length);
+    }
+
+    /**
+     * Registra um pagamento recebido. Retorna false se o correlationId já é conhecido (duplicado).
+     */
+    public boolean tryAccept(UUID correlationId) {
+        return stripeOf(correlationId).transition(correlationId, QUEUED, true, EMPTY, REMOVED) != null;
+    }
+
+    /**
+     * Reserva o pagamento para um worker. Retorna false se outro worker já está com ele ou se ele já foi concluído.
+     */
+    public boolean tryClaim(UUID correlationId) {
+        return stripeOf(correlationId).transition(correlationId, IN_FLIGHT, true, EMPTY, REMOVED, QUEUED) != null;
+    }
+
+    /**
+     * Devolve o pagamento ao estado QUEUED depois de uma tentativa sem sucesso.
+     */
+    public void release(UUID correlationId) {
+        stripeOf(correlationId).transition(correlationId, QUEUED, false, IN_FLIGHT);
+    }
+
+    public void complete(UUID correlationId, PaymentProcessorType type) {
+        byte completed = type == PaymentProcessorType.DEFAULT ? COMPLETED_DEFAULT : COMPLETED_FALLBACK;
+        stripeOf(correlationId).transition(correlationId, completed, true, EMPTY, REMOVED, QUEUED, IN_FLIGHT);
+    }
+
+    /**
+     * Esquece o pagamento (recusado na ingestão ou descartado após os retries), permitindo que seja reenviado.
+     */
+    public void forget(UUID correlationId) {
+        stripeOf(correlationId).transition(correlationId, REMOVED, false, QUEUED, IN_FLIGHT);
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        long entries = 0;
+        for (Stripe stripe : stripes) {
+            entries += stripe.size();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", entries);
+        metrics.put("evictions", evictions.sum());
+        return metrics;
+    }
+
+    private Stripe stripeOf(UUID correlationId) {
+        return stripes[hash(correlationId.getMostSignificantBits(), correlationId.getLeastSignificantBits()) >>> 16 & stripeMask];
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int generationCapacity;
+        private Table current;
+        private Table previous;
+
+        Stripe(int generationCapacity) {
+            this.generationCapacity = generationCapacity;
+            this.current = new Table(generationCapacity);
+            this.previous = new Table(generationCapacity);
+        }
+
+        /**
+         * Se o estado atual do UUID (EMPTY quando ausente) for um dos {@code from}, passa para {@code to}.
+         * Retorna o estado anterior, ou null se a transição não foi permitida.
+         * Com {@code insert} false, um UUID ausente não é criado.
+         */
+        Byte transition(UUID correlationId, byte to, boolean insert, byte... from) {
+            long msb = correlationId.getMostSignificantBits();
+            long lsb = correlationId.getLeastSignificantBits();
+            int hash = hash(msb, lsb);
+            lock.lock();
+            try {
+                int slot = current.find(msb, lsb, hash);
+                byte state;
+                if (slot >= 0) {
+                    state = current.states[slot];
+                } else {
+                    int previousSlot = previous.find(msb, lsb, hash);
+                    state = previousSlot >= 0 ? previous.states[previousSlot] : EMPTY;
+                    if (previousSlot >= 0) {
+                        previous.states[previousSlot] = REMOVED;
+                    }
+                }
+                if (!allowed(state, from)) {
+                    if (slot < 0 && state != EMPTY && state != REMOVED) {
+                        insert(msb, lsb, hash, state);
+                    }
+                    return null;
+                }
+                if (slot >= 0) {
+                    current.states[slot] = to;
+                } else if (state != EMPTY || insert) {
+                    insert(msb, lsb, hash, to);
+                }
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void insert(long msb, long lsb, int hash, byte state) {
+            if (current.size >= generationCapacity) {
+                evictions.add(previous.size);
+                Table recycled = previous;
+                recycled.clear();
+                previous = current;
+                current = recycled;
+            }
+            current.insert(msb, lsb, hash, state);
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                current.clear();
+                previous.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return current.size + previous.size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static boolean allowed(byte state, byte[] from) {
+            for (byte candidate : from) {
+                if (candidate == state) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Tabela de endereçamento aberto com sondagem linear e fator de carga máximo de 0,5.
+     * Não há remoção física: entradas removidas ficam com o estado REMOVED até a geração ser descartada.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final byte[] states;
+        private final int mask;
+        private int size;
+
+        Table(int capacity) {
+            int slots = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            this.keys = new long[slots * 2];
+            this.states = new byte[slots];
+            this.mask = slots - 1;
+        }
+
+        int find(long msb, long lsb, int hash) {
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                if (states[slot] == EMPTY) {
+                    return -1;
+                }
+                if (keys[slot * 2] == msb && keys[slot * 2 + 1] == lsb) {
+                    return slot;
+                }
+            }
+        }
+
+        void insert(long msb, long lsb, int hash, byte state) {
+            int slot = hash & mask;
+            while (states[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot * 2] = msb;
+            keys[slot * 2 + 1] = lsb;
+            states[slot] = state;
+            size++;
+        }
+
+        void clear() {
+            Arrays.fill(states, EMPTY);
+            size = 0;
+        }
+    }
+}
@@ -11,9 +11,5 @@ public interface PaymentPersistenceMongo extends MongoRepository<PaymentDocument
     
     @Query(value = "{'requestedAt': {$gte: ?0, $lte: ?1}}")
     List<PaymentDocument> findByRequestedAtBetween(Instant from, Instant to);
-    
-    @Query(value = "{'processorType': ?0, 'requestedAt': {$gte: ?1, $lte: ?2}}")
-    List<PaymentDocument> findByProcessorTypeAndRequestedAtBetween(
-        String processorType, Instant from, Instant to);
 
     }
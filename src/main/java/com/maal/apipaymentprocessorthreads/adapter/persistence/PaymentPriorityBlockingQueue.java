@@ -1,29 +1,223 @@
 package com.maal.apipaymentprocessorthreads.adapter.persistence;
 
 import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Fila de pagamentos em camadas por número de retries: a camada 0 recebe pagamentos novos
+ * e as demais recebem pagamentos reenfileirados. Cada camada é um {@link MpmcRingBuffer} limitado;
+ * o semáforo apenas conta os itens disponíveis para que os workers possam bloquear quando a fila está vazia.
+ * O spill também é limitado ({@code spill-capacity}); cheio, a política SPILL se comporta como REJECT.
+ */
 @Component
 public class PaymentPriorityBlockingQueue {
 
-    private final PriorityBlockingQueue<PaymentsProcess> paymentsQueue = new PriorityBlockingQueue<>();
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPriorityBlockingQueue.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
 
+    private final MpmcRingBuffer<PaymentsProcess>[] tiers;
+    private final ConcurrentLinkedQueue<PaymentsProcess> spill = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger spillSize = new AtomicInteger();
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicLong fetches = new AtomicLong();
+    private final int spillCapacity;
+    private final QueueOverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int agingInterval;
+
+    @SuppressWarnings("unchecked")
+    public PaymentPriorityBlockingQueue(@Value("${app.payment-queue.tiers}") int tierCount,
+                                        @Value("${app.payment-queue.capacity}") int capacity,
+                                        @Value("${app.payment-queue.spill-capacity}") int spillCapacity,
+                                        @Value("${app.payment-queue.overflow-policy}") QueueOverflowPolicy overflowPolicy,
+                                        @Value("${app.payment-queue.offer-timeout-ms}") long offerTimeoutMillis,
+                                        @Value("${app.payment-queue.aging-interval}") int agingInterval) {
+        this.tiers = new MpmcRingBuffer[Math.max(2, tierCount)];
+        for (int i = 0; i < tiers.length; i++) {
+            tiers[i] = new MpmcRingBuffer<>(capacity);
+        }
+        this.spillCapacity = Math.max(0, spillCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.agingInterval = Math.max(1, agingInterval);
+        logger.info("Payment queue started. Tiers: {}, capacity per tier: {}, spill capacity: {}, overflow policy: {}",
+                tiers.length, tiers[0].capacity(), this.spillCapacity, overflowPolicy);
+    }
+
+    /**
+     * Bloqueia até haver um pagamento. Se a thread for interrompida, preserva a interrupção e retorna vazio.
+     */
     public Optional<PaymentsProcess> fetchPayment(){
         try {
-            return Optional.of(paymentsQueue.take());
+            available.acquire();
         } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        return Optional.of(pollAvailable());
+    }
+
+    /**
+     * Espera no máximo {@code timeout} por um pagamento; retorna vazio se nenhum chegar nesse prazo.
+     */
+    public Optional<PaymentsProcess> fetchPayment(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return Optional.empty();
+        }
+        return Optional.of(pollAvailable());
+    }
+
+    /**
+     * Versão não bloqueante de {@link #fetchPayment()}: retorna vazio se a fila estiver vazia.
+     */
+    public Optional<PaymentsProcess> pollPayment() {
+        if (!available.tryAcquire()) {
+            return Optional.empty();
         }
+        return Optional.of(pollAvailable());
     }
 
-    public void addToQueue(PaymentsProcess paymentsProcess) {
-        paymentsQueue.add(paymentsProcess);
+    /**
+     * Enfileira um pagamento novo aplicando a política de overflow configurada.
+     * Retorna false quando o pagamento foi recusado por falta de espaço.
+     */
+    public boolean addToQueue(PaymentsProcess paymentsProcess) {
+        paymentsProcess.markEnqueued(System.nanoTime());
+        MpmcRingBuffer<PaymentsProcess> tier = tiers[0];
+        if (tier.offer(paymentsProcess)) {
+            available.release();
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + offerTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (tier.offer(paymentsProcess)) {
+                        available.release();
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case SPILL -> {
+                return spillOver(paymentsProcess);
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reenfileira um pagamento já aceito na camada do seu retryCount; se as camadas estiverem cheias, vai para o spill.
+     * Retorna false quando o spill também está cheio: o pagamento continua aceito e cabe ao chamador guardá-lo
+     * (normalmente reagendando no {@code PaymentRetryScheduler}).
+     */
+    public boolean addToLastQueue(PaymentsProcess paymentsProcess) {
+        paymentsProcess.markEnqueued(System.nanoTime());
+        int tierIndex = Math.clamp(paymentsProcess.retryCount(), 1, tiers.length - 1);
+        for (int i = tierIndex; i < tiers.length; i++) {
+            if (tiers[i].offer(paymentsProcess)) {
+                available.release();
+                return true;
+            }
+        }
+        return spillOver(paymentsProcess);
     }
 
-    public void addToLastQueue(PaymentsProcess paymentsProcess) {
-        paymentsQueue.offer(paymentsProcess);
+    /**
+     * Remove e retorna tudo o que ainda está na fila (usado no desligamento).
+     */
+    public List<PaymentsProcess> drain() {
+        List<PaymentsProcess> drained = new ArrayList<>();
+        for (Optional<PaymentsProcess> next = pollPayment(); next.isPresent(); next = pollPayment()) {
+            drained.add(next.get());
+        }
+        return drained;
+    }
+
+    /**
+     * True quando {@link #addToQueue} pode estacionar a thread chamadora esperando espaço (política BLOCK).
+     */
+    public boolean mayBlock() {
+        return overflowPolicy == QueueOverflowPolicy.BLOCK;
+    }
+
+    public int size() {
+        return available.availablePermits();
+    }
+
+    private boolean spillOver(PaymentsProcess paymentsProcess) {
+        if (spillSize.incrementAndGet() > spillCapacity) {
+            spillSize.decrementAndGet();
+            return false;
+        }
+        spill.offer(paymentsProcess);
+        available.release();
+        return true;
+    }
+
+    private PaymentsProcess pollSpill() {
+        PaymentsProcess paymentsProcess = spill.poll();
+        if (paymentsProcess != null) {
+            spillSize.decrementAndGet();
+        }
+        return paymentsProcess;
+    }
+
+    /**
+     * Chamado somente após adquirir uma permissão do semáforo, portanto sempre existe um item.
+     * A camada de pagamentos novos é drenada primeiro; a cada {@code agingInterval} retiradas
+     * as camadas de retry têm prioridade para que não fiquem esperando indefinidamente.
+     */
+    private PaymentsProcess pollAvailable() {
+        boolean agingTurn = fetches.incrementAndGet() % agingInterval == 0;
+        while (true) {
+            PaymentsProcess paymentsProcess = agingTurn ? pollRetriesFirst() : pollFreshFirst();
+            if (paymentsProcess != null) {
+                return paymentsProcess;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private PaymentsProcess pollFreshFirst() {
+        PaymentsProcess paymentsProcess = tiers[0].poll();
+        if (paymentsProcess == null) {
+            paymentsProcess = pollSpill();
+        }
+        for (int i = 1; paymentsProcess == null && i < tiers.length; i++) {
+            paymentsProcess = tiers[i].poll();
+        }
+        return paymentsProcess;
+    }
+
+    private PaymentsProcess pollRetriesFirst() {
+        PaymentsProcess paymentsProcess = null;
+        for (int i = tiers.length - 1; paymentsProcess == null && i > 0; i--) {
+            paymentsProcess = tiers[i].poll();
+        }
+        if (paymentsProcess == null) {
+            paymentsProcess = tiers[0].poll();
+        }
+        if (paymentsProcess == null) {
+            paymentsProcess = pollSpill();
+        }
+        return paymentsProcess;
     }
-}
\ No newline at end of file
+}
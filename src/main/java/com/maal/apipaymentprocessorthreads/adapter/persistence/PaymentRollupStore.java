@@ -0,0 +1,169 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentRollupDocument;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coleção {@code payments_rollup} com um documento por (segundo, processor) contendo quantidade e valor em centavos.
+ * É atualizada pelo {@link PaymentBatchWriter} com um upsert {@code $inc} por bucket a cada lote inserido.
+ * Cada lote tem um id próprio, guardado em {@code batches} no mesmo upsert, e o filtro só casa buckets que ainda
+ * não têm esse id: repetir um upsert depois de uma falha ambígua nunca soma o lote duas vezes.
+ * O resumo lê os segundos completos do intervalo nos buckets e só consulta os pagamentos nas frações
+ * de segundo das bordas de from/to, então o custo cresce com a duração do intervalo e não com o número de pagamentos.
+ */
+@Component
+public class PaymentRollupStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRollupStore.class);
+    private static final long ERROR_BACKOFF_MILLIS = 100;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentStorage paymentStorage;
+    private final boolean enabled;
+
+    public PaymentRollupStore(MongoTemplate mongoTemplate,
+                              PaymentStorage paymentStorage,
+                              @Value("${app.payment-summary.rollup.enabled}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.paymentStorage = paymentStorage;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Soma aos buckets os documentos inseridos por um lote do {@link PaymentBatchWriter} (nunca os duplicados),
+     * agrupados por (segundo, processor). {@code batchId} identifica o lote: chamar de novo com o mesmo id não soma nada.
+     * Como o upsert é idempotente, tenta até ser aplicado, como a inserção dos pagamentos.
+     */
+    public void record(ObjectId batchId, List<PaymentDocument> inserted) {
+        if (!enabled || inserted.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        for (PaymentDocument paymentDocument : inserted) {
+            BucketKey key = new BucketKey(paymentDocument.getProcessorType(), paymentDocument.getRequestedAt().getEpochSecond());
+            long[] delta = deltas.computeIfAbsent(key, ignored -> new long[2]);
+            delta[0]++;
+            delta[1] += Amounts.toCents(paymentDocument.getAmount());
+        }
+
+        List<Map.Entry<BucketKey, long[]>> pending = new ArrayList<>(deltas.entrySet());
+        while (!pending.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollupDocument.class);
+            for (Map.Entry<BucketKey, long[]> entry : pending) {
+                operations.upsert(
+                        new Query(bucket(entry.getKey()).and("batches").ne(batchId)),
+                        new Update().inc("count", entry.getValue()[0]).inc("amountInCents", entry.getValue()[1])
+                                .addToSet("batches", batchId));
+            }
+            try {
+                operations.execute();
+                return;
+            } catch (BulkOperationException e) {
+                List<Map.Entry<BucketKey, long[]>> failed = new ArrayList<>();
+                for (BulkWriteError error : e.getErrors()) {
+                    Map.Entry<BucketKey, long[]> entry = pending.get(error.getIndex());
+                    if (error.getCode() != DUPLICATE_KEY_ERROR || !isApplied(entry.getKey(), batchId)) {
+                        failed.add(entry);
+                    }
+                }
+                pending = failed;
+                if (!failed.isEmpty()) {
+                    logger.warn("Rollup upsert failed for {} buckets, retrying: {}", failed.size(), e.getMessage());
+                }
+            } catch (Exception e) {
+                logger.warn("Rollup upsert of {} buckets failed, retrying: {}", pending.size(), e.getMessage());
+            }
+            if (!pending.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ERROR_BACKOFF_MILLIS));
+            }
+        }
+    }
+
+    /**
+     * Chave duplicada no upsert acontece quando o bucket já tem o lote (o filtro não casou e o upsert tentou
+     * inserir outro documento) ou quando outra instância criou o bucket ao mesmo tempo; só no primeiro caso
+     * o lote já está somado.
+     */
+    private boolean isApplied(BucketKey key, ObjectId batchId) {
+        return mongoTemplate.exists(new Query(bucket(key).and("batches").is(batchId)), PaymentRollupDocument.class);
+    }
+
+    private static Criteria bucket(BucketKey key) {
+        return Criteria.where("processorType").is(key.type()).and("second").is(key.second());
+    }
+
+    /**
+     * Totais dos pagamentos com requestedAt em [from, to], ambos inclusivos.
+     */
+    public PaymentTotals totals(Instant from, Instant to) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        if (fromMillis > toMillis) {
+            return PaymentTotals.EMPTY;
+        }
+        long firstFullSecond = Math.floorDiv(fromMillis + 999, 1000);
+        long endFullSecond = Math.floorDiv(toMillis + 1, 1000);
+        if (firstFullSecond >= endFullSecond) {
+            return rawTotals(fromMillis, toMillis);
+        }
+        return bucketTotals(firstFullSecond, endFullSecond)
+                .plus(rawTotals(fromMillis, firstFullSecond * 1000 - 1))
+                .plus(rawTotals(endFullSecond * 1000, toMillis));
+    }
+
+    public void clear() {
+        paymentStorage.recreate(PaymentRollupDocument.class, mongoTemplate.getCollectionName(PaymentRollupDocument.class));
+    }
+
+    private PaymentTotals bucketTotals(long fromSecond, long toSecondExclusive) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("second").gte(fromSecond).lt(toSecondExclusive)),
+                Aggregation.group("processorType").sum("count").as("count").sum("amountInCents").as("amountInCents"));
+        long[] totals = new long[4];
+        for (Map<?, ?> result : mongoTemplate.aggregate(aggregation, PaymentRollupDocument.class, Map.class).getMappedResults()) {
+            int offset = PaymentProcessorType.FALLBACK.name().equals(String.valueOf(result.get("_id"))) ? 2 : 0;
+            totals[offset] += ((Number) result.get("count")).longValue();
+            totals[offset + 1] += ((Number) result.get("amountInCents")).longValue();
+        }
+        return new PaymentTotals(totals[0], totals[1], totals[2], totals[3]);
+    }
+
+    /**
+     * Bordas com menos de um segundo: poucos documentos, lidos diretamente da coleção de pagamentos.
+     */
+    private PaymentTotals rawTotals(long fromMillis, long toMillis) {
+        return paymentStorage.totals(Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis));
+    }
+
+    private record BucketKey(PaymentProcessorType type, long second) {
+    }
+}
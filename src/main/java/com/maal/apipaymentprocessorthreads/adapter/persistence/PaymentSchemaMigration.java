@@ -0,0 +1,111 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.CompactPaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Comando de migração de {@code payments} para {@code payments_compact}, executado quando
+ * {@code app.payment-storage.migrate=true}: copia todos os documentos em lotes e encerra a aplicação.
+ * Documentos já presentes no destino são ignorados pelo {@code _id}, então a migração pode ser
+ * repetida ou retomada depois de uma interrupção. A coleção de origem não é alterada.
+ */
+@Component
+public class PaymentSchemaMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSchemaMigration.class);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ConfigurableApplicationContext context;
+    private final boolean migrate;
+    private final int batchSize;
+
+    public PaymentSchemaMigration(MongoTemplate mongoTemplate,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${app.payment-storage.migrate}") boolean migrate,
+                                  @Value("${app.payment-storage.migrate-batch-size}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.context = context;
+        this.migrate = migrate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrate) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            migrate();
+        } catch (Exception e) {
+            logger.error("Payment schema migration failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void migrate() {
+        long start = System.currentTimeMillis();
+        long[] counters = new long[2];
+        logger.info("Migrating payments from {} to {} in batches of {}",
+                PaymentStorage.LEGACY_COLLECTION, PaymentStorage.COMPACT_COLLECTION, batchSize);
+        Query query = new Query().cursorBatchSize(batchSize);
+        List<CompactPaymentDocument> batch = new ArrayList<>(batchSize);
+        try (Stream<PaymentDocument> stream = mongoTemplate.stream(query, PaymentDocument.class, PaymentStorage.LEGACY_COLLECTION)) {
+            for (PaymentDocument paymentDocument : (Iterable<PaymentDocument>) stream::iterator) {
+                batch.add(PaymentDocumentMapper.toCompact(paymentDocument));
+                if (batch.size() >= batchSize) {
+                    insert(batch, counters);
+                }
+            }
+        }
+        insert(batch, counters);
+        logger.info("Payment schema migration finished in {} ms. Copied: {}, already present: {}",
+                System.currentTimeMillis() - start, counters[0], counters[1]);
+    }
+
+    private void insert(List<CompactPaymentDocument> batch, long[] counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long before = counters[0] + counters[1];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompactPaymentDocument.class, PaymentStorage.COMPACT_COLLECTION)
+                    .insert(batch)
+                    .execute();
+            counters[0] += batch.size();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    throw e;
+                }
+            }
+            counters[0] += batch.size() - e.getErrors().size();
+            counters[1] += e.getErrors().size();
+        }
+        batch.clear();
+        if ((counters[0] + counters[1]) / PROGRESS_INTERVAL > before / PROGRESS_INTERVAL) {
+            logger.info("Migrated {} payments so far", counters[0] + counters[1]);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.CompactPaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Acesso aos pagamentos gravados no layout configurado em {@code app.payment-storage.schema}:
+ * {@code legacy} (coleção {@code payments}, {@link PaymentDocument}) ou {@code compact}
+ * (coleção {@code payments_compact}, {@link CompactPaymentDocument}).
+ * O restante da aplicação continua trabalhando com {@link PaymentDocument}; a conversão fica no {@link PaymentDocumentMapper}.
+ */
+@Component
+public class PaymentStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStorage.class);
+
+    public static final String LEGACY_COLLECTION = "payments";
+    public static final String COMPACT_COLLECTION = "payments_compact";
+
+    private static final Executor SCAN_EXECUTOR = task -> Thread.ofVirtual().name("payment-summary-scan").start(task);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean compact;
+    private final int scanBatchSize;
+
+    public PaymentStorage(MongoTemplate mongoTemplate,
+                          @Value("${app.payment-storage.schema}") String schema,
+                          @Value("${app.payment-summary.scan-batch-size}") int scanBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.compact = "compact".equalsIgnoreCase(schema);
+        this.scanBatchSize = scanBatchSize;
+        logger.info("Payment storage schema: {}", compact ? "compact" : "legacy");
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Bulk insert não ordenado do lote. Os documentos mantêm a ordem do lote, então os índices
+     * de uma {@link org.springframework.data.mongodb.BulkOperationException} continuam valendo para {@code batch}.
+     */
+    public void insert(List<PaymentDocument> batch) {
+        if (!compact) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentDocument.class, LEGACY_COLLECTION)
+                    .insert(batch)
+                    .execute();
+            return;
+        }
+        List<CompactPaymentDocument> documents = new ArrayList<>(batch.size());
+        for (PaymentDocument paymentDocument : batch) {
+            documents.add(PaymentDocumentMapper.toCompact(paymentDocument));
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompactPaymentDocument.class, COMPACT_COLLECTION)
+                .insert(documents)
+                .execute();
+    }
+
+    /**
+     * Totais dos pagamentos com requestedAt em [from, to], ambos inclusivos.
+     * DEFAULT e FALLBACK são varridos em paralelo, cada um por um cursor sobre o índice de cobertura
+     * ({@code {processorType, requestedAt, amount}} ou {@code {p, t, a}}) que devolve só o valor em lotes de
+     * {@code scan-batch-size}; os valores são somados direto do BSON, sem montar entidades,
+     * então a memória usada não depende do número de pagamentos.
+     */
+    public PaymentTotals totals(Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            return PaymentTotals.EMPTY;
+        }
+        CompletableFuture<long[]> fallback = CompletableFuture.supplyAsync(
+                () -> scan(PaymentProcessorType.FALLBACK, from, to), SCAN_EXECUTOR);
+        long[] defaultTotals = scan(PaymentProcessorType.DEFAULT, from, to);
+        long[] fallbackTotals = fallback.join();
+        return new PaymentTotals(defaultTotals[0], defaultTotals[1], fallbackTotals[0], fallbackTotals[1]);
+    }
+
+    /**
+     * Percorre os pagamentos gravados pela instância informada, usado na reconstrução do índice em memória.
+     */
+    public void forEachProcessedBy(String instanceId, StoredPaymentConsumer consumer) {
+        if (!compact) {
+            Query query = new Query(Criteria.where("processedBy").is(instanceId));
+            try (Stream<PaymentDocument> stream = mongoTemplate.stream(query, PaymentDocument.class, LEGACY_COLLECTION)) {
+                stream.forEach(document -> consumer.accept(
+                        document.getProcessorType(), document.getRequestedAt(), Amounts.toCents(document.getAmount())));
+            }
+            return;
+        }
+        Query query = new Query(Criteria.where("i").is(instanceId));
+        query.fields().include("p", "t", "a");
+        try (Stream<CompactPaymentDocument> stream = mongoTemplate.stream(query, CompactPaymentDocument.class, COMPACT_COLLECTION)) {
+            stream.forEach(document -> consumer.accept(
+                    PaymentDocumentMapper.processorType(document.getProcessor()), document.getRequestedAt(), document.getAmountInCents()));
+        }
+    }
+
+    /**
+     * Dentre os correlationIds informados, os que já estão gravados; consultados em lotes de {@code scan-batch-size}.
+     */
+    public Set<UUID> persisted(List<UUID> correlationIds) {
+        Set<UUID> persisted = new HashSet<>();
+        for (int start = 0; start < correlationIds.size(); start += scanBatchSize) {
+            List<UUID> chunk = correlationIds.subList(start, Math.min(correlationIds.size(), start + scanBatchSize));
+            if (!compact) {
+                Query query = new Query(Criteria.where("correlationId").in(chunk.stream().map(UUID::toString).toList()));
+                query.fields().include("correlationId");
+                mongoTemplate.find(query, PaymentDocument.class, LEGACY_COLLECTION)
+                        .forEach(document -> persisted.add(UUID.fromString(document.getCorrelationId())));
+            } else {
+                Query query = new Query(Criteria.where("_id").in(chunk.stream().map(PaymentDocumentMapper::toBinary).toList()));
+                query.fields().include("_id");
+                mongoTemplate.find(query, CompactPaymentDocument.class, COMPACT_COLLECTION)
+                        .forEach(document -> persisted.add(PaymentDocumentMapper.toUuid(document.getId())));
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * Apaga os pagamentos dos dois layouts, para que um purge não deixe dados antigos numa troca de schema.
+     * As coleções são removidas (O(1), sem apagar documento a documento) e recriadas com os índices
+     * antes de retornar, para que nenhum insert posterior encontre a coleção sem o índice único.
+     */
+    public void deleteAll() {
+        recreate(PaymentDocument.class, LEGACY_COLLECTION);
+        recreate(CompactPaymentDocument.class, COMPACT_COLLECTION);
+    }
+
+    void recreate(Class<?> type, String collection) {
+        mongoTemplate.dropCollection(collection);
+        IndexOperations indexOperations = mongoTemplate.indexOps(collection);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        for (IndexDefinition index : new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(type)) {
+            indexOperations.ensureIndex(index);
+        }
+    }
+
+    /**
+     * Retorna {quantidade, valor em centavos} de um processor no intervalo.
+     */
+    private long[] scan(PaymentProcessorType type, Instant from, Instant to) {
+        Bson filter = compact
+                ? Filters.and(Filters.eq("p", type.ordinal()), Filters.gte("t", Date.from(from)), Filters.lte("t", Date.from(to)))
+                : Filters.and(Filters.eq("processorType", type.name()), Filters.gte("requestedAt", Date.from(from)), Filters.lte("requestedAt", Date.from(to)));
+        String amountField = compact ? "a" : "amount";
+        MongoCollection<RawBsonDocument> collection = mongoTemplate
+                .getCollection(compact ? COMPACT_COLLECTION : LEGACY_COLLECTION)
+                .withDocumentClass(RawBsonDocument.class);
+        long requests = 0;
+        long amountInCents = 0;
+        try (MongoCursor<RawBsonDocument> cursor = collection.find(filter)
+                .projection(Projections.fields(Projections.include(amountField), Projections.excludeId()))
+                .hintString(compact ? CompactPaymentDocument.SUMMARY_INDEX : PaymentDocument.SUMMARY_INDEX)
+                .batchSize(scanBatchSize)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                BsonValue amount = cursor.next().get(amountField);
+                requests++;
+                amountInCents += compact ? amount.asInt64().getValue() : Amounts.toCents(amount.asDecimal128().getValue().bigDecimalValue());
+            }
+        }
+        return new long[]{requests, amountInCents};
+    }
+
+    @FunctionalInterface
+    public interface StoredPaymentConsumer {
+        void accept(PaymentProcessorType type, Instant requestedAt, long amountInCents);
+    }
+}
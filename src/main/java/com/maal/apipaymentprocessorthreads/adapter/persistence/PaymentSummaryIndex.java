@@ -0,0 +1,303 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice agregado em memória dos pagamentos processados, por processor e por tempo.
+ * Segundos completos do intervalo consultado são respondidos por somas de prefixo (Fenwick tree)
+ * em O(log n); as frações de segundo nas bordas de from/to usam buckets por milissegundo, mantidos só para
+ * os últimos {@code millis-retention-seconds} segundos. Uma borda mais antiga que isso não é respondida pelo
+ * índice ({@link #totals} retorna vazio) e o resumo cai para o MongoDB.
+ * O MongoDB só é lido na inicialização para reconstruir o índice.
+ * Cada instância indexa somente os pagamentos que ela mesma processou.
+ */
+@Component
+public class PaymentSummaryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSummaryIndex.class);
+    private static final int FIELDS = 2;
+    private static final int COUNT = 0;
+    private static final int AMOUNT = 1;
+    private static final int SLOTS = PaymentProcessorType.values().length * FIELDS;
+
+    private final PaymentStorage paymentStorage;
+    private final String instanceId;
+    private final int windowSeconds;
+    private final int millisRetentionSeconds;
+    private volatile Buckets buckets;
+
+    public PaymentSummaryIndex(PaymentStorage paymentStorage,
+                               @Value("${app.instance-id}") String instanceId,
+                               @Value("${app.payment-summary.index.window-seconds}") int windowSeconds,
+                               @Value("${app.payment-summary.index.millis-retention-seconds}") int millisRetentionSeconds) {
+        this.paymentStorage = paymentStorage;
+        this.instanceId = instanceId;
+        this.windowSeconds = windowSeconds;
+        this.millisRetentionSeconds = Math.max(1, millisRetentionSeconds);
+        this.buckets = newBuckets();
+    }
+
+    /**
+     * Reconstrói o índice apenas com os pagamentos gravados por esta instância;
+     * os pagamentos das demais instâncias são somados na consulta aos peers.
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LongAdder documents = new LongAdder();
+        try {
+            paymentStorage.forEachProcessedBy(instanceId, (type, requestedAt, amountInCents) -> {
+                record(type, requestedAt, amountInCents);
+                documents.increment();
+            });
+        } catch (Exception e) {
+            logger.warn("Could not rebuild payment summary index from MongoDB: {}", e.getMessage());
+        }
+        logger.info("Payment summary index rebuilt with {} payments in {} ms", documents.sum(), System.currentTimeMillis() - start);
+    }
+
+    public void record(PaymentProcessorType type, Instant requestedAt, long amountInCents) {
+        buckets.record(type.ordinal() * FIELDS, requestedAt.toEpochMilli(), amountInCents);
+    }
+
+    /**
+     * Totais dos pagamentos com requestedAt em [from, to], ambos inclusivos como na consulta ao MongoDB.
+     * Vazio quando alguma borda cai num segundo cujos buckets por milissegundo já foram descartados.
+     */
+    public Optional<PaymentTotals> totals(Instant from, Instant to) {
+        long[] totals = new long[SLOTS];
+        if (!buckets.sum(from.toEpochMilli(), to.toEpochMilli(), totals)) {
+            return Optional.empty();
+        }
+        int defaultSlot = PaymentProcessorType.DEFAULT.ordinal() * FIELDS;
+        int fallbackSlot = PaymentProcessorType.FALLBACK.ordinal() * FIELDS;
+        return Optional.of(new PaymentTotals(totals[defaultSlot + COUNT], totals[defaultSlot + AMOUNT],
+                totals[fallbackSlot + COUNT], totals[fallbackSlot + AMOUNT]));
+    }
+
+    public void clear() {
+        buckets = newBuckets();
+    }
+
+    private Buckets newBuckets() {
+        long baseSecond = Instant.now().getEpochSecond() - windowSeconds / 4;
+        return new Buckets(baseSecond, windowSeconds, millisRetentionSeconds);
+    }
+
+    private static final class Buckets {
+
+        private final long baseSecond;
+        private final int windowSeconds;
+        private final FenwickTree[] seconds = new FenwickTree[SLOTS];
+        private final OutsideWindow beforeWindow = new OutsideWindow();
+        private final OutsideWindow afterWindow = new OutsideWindow();
+        private final MillisRing millis;
+
+        Buckets(long baseSecond, int windowSeconds, int millisRetentionSeconds) {
+            this.baseSecond = baseSecond;
+            this.windowSeconds = windowSeconds;
+            this.millis = new MillisRing(millisRetentionSeconds);
+            for (int i = 0; i < SLOTS; i++) {
+                seconds[i] = new FenwickTree(windowSeconds);
+            }
+        }
+
+        void record(int slot, long epochMilli, long amountInCents) {
+            millis.record(slot, epochMilli, amountInCents);
+
+            long second = Math.floorDiv(epochMilli, 1000) - baseSecond;
+            if (second < 0) {
+                beforeWindow.record(slot, epochMilli, amountInCents);
+            } else if (second >= windowSeconds) {
+                afterWindow.record(slot, epochMilli, amountInCents);
+            } else {
+                seconds[slot + COUNT].add((int) second, 1);
+                seconds[slot + AMOUNT].add((int) second, amountInCents);
+            }
+        }
+
+        /**
+         * Fora da janela só há totais agregados, que valem se o intervalo cobrir todos os pagamentos daquele lado.
+         */
+        boolean sum(long fromMillis, long toMillis, long[] totals) {
+            if (fromMillis > toMillis) {
+                return true;
+            }
+            long windowStartMillis = baseSecond * 1000;
+            long windowEndMillis = (baseSecond + windowSeconds) * 1000 - 1;
+            if (!beforeWindow.sum(fromMillis, Math.min(toMillis, windowStartMillis - 1), totals)
+                    || !afterWindow.sum(Math.max(fromMillis, windowEndMillis + 1), toMillis, totals)) {
+                return false;
+            }
+            return sumWindow(Math.max(fromMillis, windowStartMillis), Math.min(toMillis, windowEndMillis), totals);
+        }
+
+        private boolean sumWindow(long fromMillis, long toMillis, long[] totals) {
+            if (fromMillis > toMillis) {
+                return true;
+            }
+            long firstFullSecond = Math.floorDiv(fromMillis + 999, 1000);
+            long endFullSecond = Math.floorDiv(toMillis + 1, 1000);
+            if (firstFullSecond >= endFullSecond) {
+                return millis.sum(fromMillis, toMillis, totals);
+            }
+            for (int i = 0; i < SLOTS; i++) {
+                totals[i] += seconds[i].sum((int) (firstFullSecond - baseSecond), (int) (endFullSecond - baseSecond));
+            }
+            return millis.sum(fromMillis, firstFullSecond * 1000 - 1, totals)
+                    && millis.sum(endFullSecond * 1000, toMillis, totals);
+        }
+    }
+
+    /**
+     * Buckets por milissegundo dos últimos {@code retentionSeconds} segundos, num anel com um bloco por segundo.
+     * Um bloco é substituído quando o mesmo slot do anel é usado por um segundo mais novo; {@code evictedUpTo}
+     * marca o segundo mais recente cujos milissegundos já não estão completos (bloco substituído ou
+     * pagamento chegando para um segundo que já saiu do anel).
+     */
+    private static final class MillisRing {
+
+        private final int retentionSeconds;
+        private final AtomicReferenceArray<Block> blocks;
+        private final AtomicLong evictedUpTo = new AtomicLong(Long.MIN_VALUE);
+
+        MillisRing(int retentionSeconds) {
+            this.retentionSeconds = retentionSeconds;
+            this.blocks = new AtomicReferenceArray<>(retentionSeconds);
+        }
+
+        void record(int slot, long epochMilli, long amountInCents) {
+            long second = Math.floorDiv(epochMilli, 1000);
+            int index = (int) Math.floorMod(second, (long) retentionSeconds);
+            int offset = (int) Math.floorMod(epochMilli, 1000L) * SLOTS + slot;
+            while (true) {
+                Block block = blocks.get(index);
+                if (block != null && block.second == second) {
+                    block.counts.incrementAndGet(offset + COUNT);
+                    block.counts.addAndGet(offset + AMOUNT, amountInCents);
+                    return;
+                }
+                if (block != null && block.second > second) {
+                    evictedUpTo.accumulateAndGet(second, Math::max);
+                    return;
+                }
+                if (block != null) {
+                    evictedUpTo.accumulateAndGet(block.second, Math::max);
+                }
+                blocks.compareAndSet(index, block, new Block(second));
+            }
+        }
+
+        /**
+         * Soma [fromMillis, toMillis] segundo a segundo; false se algum desses segundos já foi descartado.
+         */
+        boolean sum(long fromMillis, long toMillis, long[] totals) {
+            for (long second = Math.floorDiv(fromMillis, 1000); second <= Math.floorDiv(toMillis, 1000); second++) {
+                if (second <= evictedUpTo.get()) {
+                    return false;
+                }
+                Block block = blocks.get((int) Math.floorMod(second, (long) retentionSeconds));
+                if (block == null || block.second < second) {
+                    continue;
+                }
+                if (block.second > second) {
+                    return false;
+                }
+                int first = (int) (Math.max(fromMillis, second * 1000) - second * 1000);
+                int last = (int) (Math.min(toMillis, second * 1000 + 999) - second * 1000);
+                for (int ms = first; ms <= last; ms++) {
+                    for (int i = 0; i < SLOTS; i++) {
+                        totals[i] += block.counts.get(ms * SLOTS + i);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static final class Block {
+
+            private final long second;
+            private final AtomicLongArray counts = new AtomicLongArray(1000 * SLOTS);
+
+            Block(long second) {
+                this.second = second;
+            }
+        }
+    }
+
+    /**
+     * Totais agregados dos pagamentos antes ou depois da janela da Fenwick tree, com o menor e o maior requestedAt.
+     */
+    private static final class OutsideWindow {
+
+        private final AtomicLongArray totals = new AtomicLongArray(SLOTS);
+        private final AtomicLong minMillis = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxMillis = new AtomicLong(Long.MIN_VALUE);
+
+        void record(int slot, long epochMilli, long amountInCents) {
+            minMillis.accumulateAndGet(epochMilli, Math::min);
+            maxMillis.accumulateAndGet(epochMilli, Math::max);
+            totals.incrementAndGet(slot + COUNT);
+            totals.addAndGet(slot + AMOUNT, amountInCents);
+        }
+
+        boolean sum(long fromMillis, long toMillis, long[] sum) {
+            long min = minMillis.get();
+            long max = maxMillis.get();
+            if (fromMillis > toMillis || min > max || toMillis < min || fromMillis > max) {
+                return true;
+            }
+            if (fromMillis > min || toMillis < max) {
+                return false;
+            }
+            for (int i = 0; i < SLOTS; i++) {
+                sum[i] += totals.get(i);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Fenwick tree (binary indexed tree) sobre AtomicLongArray: atualizações e somas de prefixo em O(log n)
+     * sem locks.
+     */
+    private static final class FenwickTree {
+
+        private final AtomicLongArray tree;
+
+        FenwickTree(int size) {
+            this.tree = new AtomicLongArray(size + 1);
+        }
+
+        void add(int index, long delta) {
+            for (int i = index + 1; i < tree.length(); i += i & -i) {
+                tree.addAndGet(i, delta);
+            }
+        }
+
+        long sum(int fromInclusive, int toExclusive) {
+            return prefix(toExclusive) - prefix(fromInclusive);
+        }
+
+        private long prefix(int toExclusive) {
+            long sum = 0;
+            for (int i = toExclusive; i > 0; i -= i & -i) {
+                sum += tree.get(i);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Log local, append-only e mapeado em memória, dos pagamentos aceitos e ainda não persistidos no MongoDB.
+ * Cada registro tem tamanho fixo e um byte de estado que é marcado como concluído no próprio lugar
+ * quando o pagamento é gravado. Uma thread faz o fsync em grupo dos segmentos alterados a cada
+ * {@code sync-interval-ms}; o append em si só escreve na memória mapeada, que sobrevive à morte do processo.
+ * A mesma thread pré-aloca o próximo segmento e apaga os concluídos, de modo que o append, que roda na thread de IO
+ * no fast path, nunca abre, mapeia ou apaga arquivos.
+ * Na inicialização os registros não concluídos são reenfileirados e segmentos sem pendências são apagados.
+ */
+@Component
+public class PaymentWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWriteAheadLog.class);
+
+    static final int RECORD_SIZE = 40;
+    private static final byte WRITTEN = 1;
+    private static final byte COMPLETED = 2;
+    private static final int STATE_OFFSET = 0;
+    private static final int MOST_SIGNIFICANT_BITS_OFFSET = 8;
+    private static final int LEAST_SIGNIFICANT_BITS_OFFSET = 16;
+    private static final int AMOUNT_OFFSET = 24;
+    private static final int REQUESTED_AT_OFFSET = 32;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Posição retornada quando o log está desativado; {@link #markCompleted(long)} a ignora.
+     */
+    public static final long NO_POSITION = -1;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentCapacity;
+    private final long syncIntervalNanos;
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Segment> retired = new ConcurrentLinkedQueue<>();
+    private volatile Segment current;
+    private Segment next;
+    private volatile boolean running = true;
+    private volatile Thread syncer;
+
+    public PaymentWriteAheadLog(@Value("${app.payment-wal.enabled}") boolean enabled,
+                                @Value("${app.payment-wal.directory}") String directory,
+                                @Value("${app.payment-wal.segment-size-bytes}") int segmentSizeBytes,
+                                @Value("${app.payment-wal.sync-interval-ms}") long syncIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentCapacity = segmentSizeBytes / RECORD_SIZE * RECORD_SIZE;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            logger.info("Payment write-ahead log disabled");
+            return;
+        }
+        Files.createDirectories(directory);
+        int lastSegmentId = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(PaymentWriteAheadLog::isSegmentFile).sorted().toList()) {
+                Segment segment = Segment.open(file, segmentIdOf(file), segmentCapacity);
+                segment.seal();
+                segments.put(segment.id, segment);
+                lastSegmentId = Math.max(lastSegmentId, segment.id);
+            }
+        }
+        current = openSegment(lastSegmentId + 1);
+        segments.put(current.id, current);
+        syncer = Thread.ofVirtual().name("payment-wal-sync").start(this::sync);
+        logger.info("Payment write-ahead log started at {} with {} previous segments", directory, segments.size() - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(syncer);
+        segments.values().forEach(Segment::force);
+        synchronized (this) {
+            if (next != null) {
+                retired.add(next);
+                next = null;
+            }
+        }
+        deleteRetired();
+    }
+
+    /**
+     * Entrega ao consumidor cada pagamento aceito antes do último desligamento e ainda não concluído,
+     * com a sua posição no log. Segmentos sem nenhuma pendência são apagados.
+     */
+    public void replay(BiConsumer<Payment, Long> consumer) {
+        if (!enabled) {
+            return;
+        }
+        int replayed = 0;
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (segment == current) {
+                continue;
+            }
+            List<Integer> pendingOffsets = new ArrayList<>();
+            for (int offset = 0; offset + RECORD_SIZE <= segmentCapacity; offset += RECORD_SIZE) {
+                if (segment.buffer.get(offset + STATE_OFFSET) == WRITTEN) {
+                    pendingOffsets.add(offset);
+                }
+            }
+            segment.pending.set(pendingOffsets.size());
+            for (int offset : pendingOffsets) {
+                consumer.accept(segment.read(offset), position(segment.id, offset));
+                replayed++;
+            }
+            deleteIfDone(segment);
+        }
+        if (replayed > 0) {
+            logger.info("Replayed {} unfinished payments from the write-ahead log", replayed);
+        }
+    }
+
+    /**
+     * Registra o pagamento e retorna a sua posição no log, usada depois em {@link #markCompleted(long)}.
+     */
+    public long append(Payment payment) {
+        if (!enabled) {
+            return NO_POSITION;
+        }
+        while (true) {
+            Segment segment = current;
+            segment.pending.incrementAndGet();
+            int offset = segment.writeOffset.getAndAdd(RECORD_SIZE);
+            if (offset + RECORD_SIZE <= segmentCapacity) {
+                segment.write(offset, payment);
+                return position(segment.id, offset);
+            }
+            if (segment.pending.decrementAndGet() == 0) {
+                deleteIfDone(segment);
+            }
+            roll(segment);
+        }
+    }
+
+    /**
+     * Marca o registro como concluído. Quando um segmento já encerrado não tem mais pendências, o arquivo é apagado.
+     */
+    public void markCompleted(long position) {
+        if (position == NO_POSITION) {
+            return;
+        }
+        Segment segment = segments.get(segmentIdOf(position));
+        if (segment == null) {
+            return;
+        }
+        segment.buffer.put(offsetOf(position) + STATE_OFFSET, COMPLETED);
+        segment.dirty.set(true);
+        if (segment.pending.decrementAndGet() == 0) {
+            deleteIfDone(segment);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Troca o segmento cheio pelo pré-alocado. Só abre o arquivo aqui se a thread de sync ainda não o preparou,
+     * o que exige encher um segmento inteiro dentro de um intervalo de sync.
+     */
+    private synchronized void roll(Segment full) {
+        if (current != full) {
+            return;
+        }
+        Segment segment = next;
+        next = null;
+        if (segment == null) {
+            segment = openSegment(full.id + 1);
+        }
+        segments.put(segment.id, segment);
+        current = segment;
+        full.seal();
+        deleteIfDone(full);
+        LockSupport.unpark(syncer);
+    }
+
+    private synchronized void preallocate() {
+        if (next == null) {
+            next = openSegment(current.id + 1);
+        }
+    }
+
+    private Segment openSegment(int id) {
+        try {
+            return Segment.open(directory.resolve(segmentFileName(id)), id, segmentCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create write-ahead log segment " + id, e);
+        }
+    }
+
+    /**
+     * Tira o segmento concluído do log; o arquivo é fechado e apagado depois pela thread de sync.
+     */
+    private void deleteIfDone(Segment segment) {
+        if (!segment.sealed || segment.pending.get() != 0 || !segment.deleted.compareAndSet(false, true)) {
+            return;
+        }
+        segments.remove(segment.id);
+        retired.add(segment);
+    }
+
+    private void deleteRetired() {
+        Segment segment;
+        while ((segment = retired.poll()) != null) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                logger.warn("Could not delete write-ahead log segment {}: {}", segment.file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Group commit: um único force por segmento alterado a cada intervalo, independentemente de quantos appends houve.
+     * Em seguida prepara o próximo segmento e apaga os que já foram concluídos.
+     */
+    private void sync() {
+        while (running) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            for (Segment segment : segments.values()) {
+                if (segment.dirty.getAndSet(false) && !segment.deleted.get()) {
+                    segment.force();
+                }
+            }
+            try {
+                preallocate();
+            } catch (UncheckedIOException e) {
+                logger.warn("Could not preallocate write-ahead log segment: {}", e.getMessage());
+            }
+            deleteRetired();
+        }
+    }
+
+    private static long position(int segmentId, int offset) {
+        return ((long) segmentId << 32) | offset;
+    }
+
+    private static int segmentIdOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static int segmentIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String segmentFileName(int id) {
+        return String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX);
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger writeOffset = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean sealed;
+
+        private Segment(int id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int id, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+
+        /**
+         * Os campos são gravados antes do byte de estado, para que um registro pela metade nunca seja lido como WRITTEN.
+         * Escritas absolutas em posições distintas não compartilham estado do buffer.
+         */
+        void write(int offset, Payment payment) {
+            buffer.putLong(offset + MOST_SIGNIFICANT_BITS_OFFSET, payment.correlationId().getMostSignificantBits());
+            buffer.putLong(offset + LEAST_SIGNIFICANT_BITS_OFFSET, payment.correlationId().getLeastSignificantBits());
+            buffer.putLong(offset + AMOUNT_OFFSET, payment.amountInCents());
+            buffer.putLong(offset + REQUESTED_AT_OFFSET, payment.requestedAt().toEpochMilli());
+            buffer.put(offset + STATE_OFFSET, WRITTEN);
+            dirty.set(true);
+        }
+
+        Payment read(int offset) {
+            return new Payment(
+                    new UUID(buffer.getLong(offset + MOST_SIGNIFICANT_BITS_OFFSET), buffer.getLong(offset + LEAST_SIGNIFICANT_BITS_OFFSET)),
+                    buffer.getLong(offset + AMOUNT_OFFSET),
+                    Instant.ofEpochMilli(buffer.getLong(offset + REQUESTED_AT_OFFSET)));
+        }
+
+        void seal() {
+            sealed = true;
+        }
+
+        void force() {
+            if (!deleted.get()) {
+                buffer.force();
+            }
+        }
+    }
+}
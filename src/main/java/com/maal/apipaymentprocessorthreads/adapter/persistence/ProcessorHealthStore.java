@@ -0,0 +1,82 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.HealthCheckLeaseDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.ProcessorHealthDocument;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorHealthSnapshot;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class ProcessorHealthStore {
+
+    private static final String LEASE_ID = "processor-health-leader";
+    private static final String SNAPSHOT_ID = "processor-health";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProcessorHealthStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adquire ou renova o lease de líder do health-check.
+     * O upsert só encontra o documento quando o lease é nosso ou já expirou;
+     * caso contrário o insert colide no _id e outra instância continua líder.
+     */
+    public boolean tryAcquireLease(String owner, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Query query = new Query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("expiresAt", now + ttlMillis);
+        try {
+            HealthCheckLeaseDocument lease = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), HealthCheckLeaseDocument.class);
+            return lease != null && owner.equals(lease.getOwner());
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void publish(ProcessorHealthSnapshot snapshot) {
+        ProcessorHealthDocument document = new ProcessorHealthDocument();
+        document.setId(SNAPSHOT_ID);
+        if (snapshot.defaultHealth() != null) {
+            document.setDefaultFailing(snapshot.defaultHealth().failing());
+            document.setDefaultMinResponseTime(snapshot.defaultHealth().minResponseTime());
+        }
+        if (snapshot.fallbackHealth() != null) {
+            document.setFallbackFailing(snapshot.fallbackHealth().failing());
+            document.setFallbackMinResponseTime(snapshot.fallbackHealth().minResponseTime());
+        }
+        document.setUpdatedAt(snapshot.updatedAtMillis());
+        mongoTemplate.save(document);
+    }
+
+    public Optional<ProcessorHealthSnapshot> read() {
+        ProcessorHealthDocument document = mongoTemplate.findById(SNAPSHOT_ID, ProcessorHealthDocument.class);
+        if (document == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ProcessorHealthSnapshot(
+                toHealthStatus(document.getDefaultFailing(), document.getDefaultMinResponseTime()),
+                toHealthStatus(document.getFallbackFailing(), document.getFallbackMinResponseTime()),
+                document.getUpdatedAt()));
+    }
+
+    private static HealthStatus toHealthStatus(Boolean failing, Integer minResponseTime) {
+        if (failing == null || minResponseTime == null) {
+            return null;
+        }
+        return new HealthStatus(failing, minResponseTime);
+    }
+}
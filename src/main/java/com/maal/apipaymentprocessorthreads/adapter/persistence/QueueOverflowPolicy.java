@@ -0,0 +1,7 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+public enum QueueOverflowPolicy {
+        REJECT,
+        BLOCK,
+        SPILL
+}
@@ -0,0 +1,233 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorHealthSnapshot;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Workers em virtual threads que consomem a fila de pagamentos, em quantidade ajustada continuamente.
+ * Pela lei de Little, a concorrência necessária é {@code L = λ · W}: a taxa de chegada (mais a taxa para escoar
+ * o backlog dentro de {@code drain-target-ms}) vezes a latência EWMA do processor em uso, com uma folga.
+ * Crescer é imediato; encolher é gradual e o worker só se aposenta entre um pagamento e outro.
+ * Com os dois processors falhando, o pool cai ao mínimo, já que mais workers só gerariam mais falhas.
+ */
+@Component
+public class AdaptiveWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveWorkerPool.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final double MIN_LATENCY_MILLIS = 1.0;
+    private static final long STOP_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final PaymentPriorityBlockingQueue paymentsQueue;
+    private final ProcessorStatsTracker processorStatsTracker;
+    private final ProcessorHealthMonitor processorHealthMonitor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final LongAdder arrivals = new LongAdder();
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long adjustIntervalMillis;
+    private final long drainTargetMillis;
+    private final double headroom;
+    private volatile int targetWorkers;
+    private volatile double arrivalRatePerSecond;
+    private volatile boolean running = true;
+    private Consumer<PaymentsProcess> handler;
+    private Thread controller;
+
+    public AdaptiveWorkerPool(PaymentPriorityBlockingQueue paymentsQueue,
+                              ProcessorStatsTracker processorStatsTracker,
+                              ProcessorHealthMonitor processorHealthMonitor,
+                              @Value("${app.payment-processor.workers.min}") int minWorkers,
+                              @Value("${app.payment-processor.workers.max}") int maxWorkers,
+                              @Value("${app.payment-processor.maxVirtualThreads}") int initialWorkers,
+                              @Value("${app.payment-processor.workers.adjust-interval-ms}") long adjustIntervalMillis,
+                              @Value("${app.payment-processor.workers.drain-target-ms}") long drainTargetMillis,
+                              @Value("${app.payment-processor.workers.headroom}") double headroom) {
+        this.paymentsQueue = paymentsQueue;
+        this.processorStatsTracker = processorStatsTracker;
+        this.processorHealthMonitor = processorHealthMonitor;
+        this.minWorkers = Math.max(1, minWorkers);
+        this.maxWorkers = Math.max(this.minWorkers, maxWorkers);
+        this.targetWorkers = Math.clamp(initialWorkers, this.minWorkers, this.maxWorkers);
+        this.adjustIntervalMillis = adjustIntervalMillis;
+        this.drainTargetMillis = Math.max(1, drainTargetMillis);
+        this.headroom = headroom;
+    }
+
+    /**
+     * Inicia os workers; cada pagamento retirado da fila é entregue ao handler.
+     */
+    public void start(Consumer<PaymentsProcess> handler) {
+        this.handler = handler;
+        spawnUpToTarget();
+        controller = Thread.ofVirtual().name("payment-worker-controller").start(this::control);
+        logger.info("Adaptive worker pool started. Workers: {} (min: {}, max: {})", targetWorkers, minWorkers, maxWorkers);
+    }
+
+    /**
+     * Para de retirar pagamentos da fila e aguarda, até o prazo, que os workers terminem o pagamento em andamento.
+     * Retorna false se algum worker ainda estava ocupado no prazo.
+     */
+    public boolean stop(long deadlineNanos) {
+        running = false;
+        if (controller != null) {
+            controller.interrupt();
+        }
+        while (activeWorkers.get() > 0 && System.nanoTime() < deadlineNanos) {
+            LockSupport.parkNanos(STOP_POLL_NANOS);
+        }
+        executor.shutdown();
+        return activeWorkers.get() == 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop(System.nanoTime());
+    }
+
+    public void recordArrival() {
+        arrivals.increment();
+    }
+
+    public int busyWorkers() {
+        return busyWorkers.get();
+    }
+
+    public int activeWorkers() {
+        return activeWorkers.get();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("active", activeWorkers.get());
+        metrics.put("target", targetWorkers);
+        metrics.put("arrivalRatePerSecond", arrivalRatePerSecond);
+        return metrics;
+    }
+
+    private void control() {
+        long lastArrivals = 0;
+        long lastNanos = System.nanoTime();
+        while (running) {
+            try {
+                Thread.sleep(adjustIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long now = System.nanoTime();
+            long totalArrivals = arrivals.sum();
+            arrivalRatePerSecond = (totalArrivals - lastArrivals) * 1e9 / Math.max(1, now - lastNanos);
+            lastArrivals = totalArrivals;
+            lastNanos = now;
+            try {
+                adjust(desiredWorkers());
+            } catch (Exception e) {
+                logger.warn("Error adjusting worker pool: {}", e.getMessage());
+            }
+        }
+    }
+
+    int desiredWorkers() {
+        ProcessorHealthSnapshot health = processorHealthMonitor.freshSnapshot();
+        boolean defaultUp = isUp(health.defaultHealth());
+        boolean fallbackUp = isUp(health.fallbackHealth());
+        if (!defaultUp && !fallbackUp) {
+            return minWorkers;
+        }
+        PaymentProcessorType type = defaultUp ? PaymentProcessorType.DEFAULT : PaymentProcessorType.FALLBACK;
+        HealthStatus healthStatus = defaultUp ? health.defaultHealth() : health.fallbackHealth();
+        double latencyMillis = Math.max(MIN_LATENCY_MILLIS,
+                Math.max(processorStatsTracker.stats(type).latencyMillis(), healthStatus == null ? 0 : healthStatus.minResponseTime()));
+
+        double drainRatePerSecond = paymentsQueue.size() * 1000.0 / drainTargetMillis;
+        double concurrency = (arrivalRatePerSecond + drainRatePerSecond) * latencyMillis / 1000.0 * headroom;
+        return (int) Math.clamp(Math.ceil(concurrency), minWorkers, maxWorkers);
+    }
+
+    private void adjust(int desired) {
+        int current = targetWorkers;
+        int next = desired >= current ? desired : Math.max(desired, current - Math.max(1, current / 4));
+        if (next != current) {
+            logger.debug("Worker pool target {} -> {} (arrival rate {}/s, queue {})",
+                    current, next, (long) arrivalRatePerSecond, paymentsQueue.size());
+            targetWorkers = next;
+        }
+        spawnUpToTarget();
+    }
+
+    private void spawnUpToTarget() {
+        while (true) {
+            int active = activeWorkers.get();
+            if (active >= targetWorkers) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                executor.submit(this::runWorker);
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (!retireIfAboveTarget()) {
+            if (!running) {
+                activeWorkers.decrementAndGet();
+                return;
+            }
+            try {
+                Optional<PaymentsProcess> paymentsProcess = paymentsQueue.fetchPayment(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (paymentsProcess.isPresent()) {
+                    busyWorkers.incrementAndGet();
+                    try {
+                        handler.accept(paymentsProcess.get());
+                    } finally {
+                        busyWorkers.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activeWorkers.decrementAndGet();
+                return;
+            } catch (Exception e) {
+                logger.error("Error processing payment: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private boolean retireIfAboveTarget() {
+        while (true) {
+            int active = activeWorkers.get();
+            if (active <= targetWorkers) {
+                return false;
+            }
+            if (activeWorkers.compareAndSet(active, active - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isUp(HealthStatus healthStatus) {
+        return healthStatus == null || !healthStatus.failing();
+    }
+}
@@ -0,0 +1,31 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentRoutingStrategy;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.domain.model.RoutingContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Política original: default enquanto estiver saudável e rápido, fallback quando o default falha.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment-routing.strategy", havingValue = "health", matchIfMissing = true)
+public class HealthRoutingStrategy implements PaymentRoutingStrategy {
+
+    private final ProcessorHealthMonitor processorHealthMonitor;
+
+    public HealthRoutingStrategy(ProcessorHealthMonitor processorHealthMonitor) {
+        this.processorHealthMonitor = processorHealthMonitor;
+    }
+
+    @Override
+    public ProcessorRoute route(RoutingContext context) {
+        return processorHealthMonitor.route();
+    }
+
+    @Override
+    public boolean failoverToFallback(RoutingContext context) {
+        return processorHealthMonitor.isFallbackAvailable();
+    }
+}
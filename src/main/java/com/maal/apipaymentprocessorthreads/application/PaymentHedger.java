@@ -0,0 +1,278 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.adapter.http.LoadSheddingException;
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentPayloadPool;
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PipelineMetrics;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedging das chamadas ao processor default. Se ele não responder dentro do quantil {@code quantile}
+ * das latências recentes com sucesso, uma segunda tentativa é enviada ao mesmo processor e vale a primeira
+ * que tiver sucesso. A duplicata é segura: o processor responde 422 "correlationId already exists" para a segunda,
+ * o que conta como sucesso, e o pagamento é cobrado uma única vez. Hedge no fallback não é suportado, porque
+ * os dois processors poderiam cobrar o mesmo correlationId; {@code target} diferente de {@code default} impede
+ * a inicialização.
+ * Os hedges ficam limitados a {@code max-ratio} das chamadas ao default.
+ */
+@Component
+public class PaymentHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentHedger.class);
+    private static final int MIN_SAMPLES = 100;
+
+    private final PaymentPayloadPool paymentPayloadPool;
+    private final PipelineMetrics pipelineMetrics;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LatencyWindow latencies;
+    private final LongAdder primaryCalls = new LongAdder();
+    private final LongAdder hedgesFired = new LongAdder();
+    private final boolean enabled;
+    private final double quantile;
+    private final long minDelayNanos;
+    private final double maxRatio;
+
+    public PaymentHedger(PaymentPayloadPool paymentPayloadPool,
+                         PipelineMetrics pipelineMetrics,
+                         @Value("${app.payment-processor.hedge.enabled}") boolean enabled,
+                         @Value("${app.payment-processor.hedge.quantile}") double quantile,
+                         @Value("${app.payment-processor.hedge.min-delay-ms}") long minDelayMillis,
+                         @Value("${app.payment-processor.hedge.max-ratio}") double maxRatio,
+                         @Value("${app.payment-processor.hedge.target}") String target,
+                         @Value("${app.payment-processor.hedge.window-ms}") long windowMillis) {
+        this.paymentPayloadPool = paymentPayloadPool;
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.quantile = quantile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.maxRatio = maxRatio;
+        if (!"default".equalsIgnoreCase(target)) {
+            throw new IllegalArgumentException("app.payment-processor.hedge.target must be 'default'; hedging to another processor"
+                    + " could charge the same correlationId twice. Got: " + target);
+        }
+        this.latencies = new LatencyWindow(windowMillis);
+        if (enabled) {
+            logger.info("Payment hedging enabled. Quantile: {}, max ratio: {}", quantile, maxRatio);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Latência de uma chamada ao default que teve sucesso; alimenta o quantil que dispara o hedge.
+     */
+    public void recordLatency(PaymentProcessorType type, boolean processed, long nanos) {
+        if (enabled && processed && type == PaymentProcessorType.DEFAULT) {
+            latencies.record(nanos);
+        }
+    }
+
+    /**
+     * Chama o default e, se preciso, o hedge. Retorna o processor vencedor (null se nenhuma tentativa teve sucesso)
+     * e um future que completa quando a chamada original termina: só então o payload pode voltar ao pool.
+     * O worker chamador fica estacionado até haver um vencedor ou as duas tentativas falharem.
+     * Se a chamada original foi recusada localmente ({@link LoadSheddingException}), a exceção é propagada para o pagamento ser reagendado.
+     */
+    public Outcome call(PaymentPayload payload, ProcessorCall processorCall) {
+        primaryCalls.increment();
+        CompletableFuture<Boolean> primary = CompletableFuture.supplyAsync(
+                () -> processorCall.call(PaymentProcessorType.DEFAULT, payload), executor);
+
+        long delayNanos = hedgeDelayNanos();
+        if (delayNanos < 0) {
+            return awaitPrimary(primary);
+        }
+        try {
+            return new Outcome(primary.get(delayNanos, TimeUnit.NANOSECONDS) ? PaymentProcessorType.DEFAULT : null, primary);
+        } catch (TimeoutException e) {
+            return hedge(payload, primary, processorCall);
+        } catch (InterruptedException e) {
+            try {
+                return awaitPrimary(primary);
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        } catch (ExecutionException e) {
+            rethrowShed(primary);
+            return new Outcome(null, primary);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long calls = primaryCalls.sum();
+        metrics.put("enabled", enabled ? 1 : 0);
+        metrics.put("delayMillis", Math.max(0, hedgeDelayNanos()) / 1_000_000.0);
+        metrics.put("rate", calls == 0 ? 0.0 : (double) hedgesFired.sum() / calls);
+        return metrics;
+    }
+
+    /**
+     * Espera a chamada original sem ser interrompido: enquanto ela está em voo o payload ainda é lido e o pagamento
+     * pode ser cobrado, então o chamador não pode retentar nem devolver o payload ao pool antes do resultado.
+     */
+    private Outcome awaitPrimary(CompletableFuture<Boolean> primary) {
+        try {
+            return new Outcome(primary.join() ? PaymentProcessorType.DEFAULT : null, primary);
+        } catch (CompletionException e) {
+            rethrowShed(primary);
+            return new Outcome(null, primary);
+        }
+    }
+
+    private Outcome hedge(PaymentPayload payload, CompletableFuture<Boolean> primary, ProcessorCall processorCall) {
+        hedgesFired.increment();
+        pipelineMetrics.recordHedge(PipelineMetrics.HedgeResult.FIRED);
+        PaymentPayload copy = paymentPayloadPool.acquire();
+        System.arraycopy(payload.buffer(), 0, copy.buffer(), 0, payload.length());
+        copy.setLength(payload.length());
+        CompletableFuture<Boolean> hedge = CompletableFuture.supplyAsync(() -> processorCall.call(PaymentProcessorType.DEFAULT, copy), executor);
+        hedge.whenComplete((processed, error) -> paymentPayloadPool.release(copy));
+
+        CompletableFuture<Boolean> hedgeWon = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        settle(primary, false, hedgeWon, failures);
+        settle(hedge, true, hedgeWon, failures);
+
+        Boolean won = hedgeWon.join();
+        if (won == null) {
+            rethrowShed(primary);
+            return new Outcome(null, primary);
+        }
+        if (won) {
+            pipelineMetrics.recordHedge(PipelineMetrics.HedgeResult.WON);
+        }
+        return new Outcome(PaymentProcessorType.DEFAULT, primary);
+    }
+
+    /**
+     * A primeira tentativa com sucesso decide o vencedor (true se foi o hedge); se as duas falharem, o resultado é null.
+     */
+    private void settle(CompletableFuture<Boolean> attempt, boolean isHedge,
+                        CompletableFuture<Boolean> hedgeWon, AtomicInteger failures) {
+        attempt.whenComplete((processed, error) -> {
+            if (Boolean.TRUE.equals(processed)) {
+                hedgeWon.complete(isHedge);
+            } else if (failures.incrementAndGet() == 2) {
+                hedgeWon.complete(null);
+            }
+        });
+    }
+
+    private static void rethrowShed(CompletableFuture<Boolean> attempt) {
+        if (attempt.isCompletedExceptionally() && attempt.exceptionNow() instanceof LoadSheddingException shed) {
+            throw shed;
+        }
+    }
+
+    /**
+     * Negativo quando não há hedge: desativado, poucas amostras ou orçamento de hedges esgotado.
+     */
+    private long hedgeDelayNanos() {
+        if (!enabled || hedgesFired.sum() >= maxRatio * primaryCalls.sum()) {
+            return -1;
+        }
+        long quantileNanos = latencies.quantileNanos(quantile);
+        return quantileNanos < 0 ? -1 : Math.max(minDelayNanos, quantileNanos);
+    }
+
+    @FunctionalInterface
+    public interface ProcessorCall {
+        boolean call(PaymentProcessorType type, PaymentPayload payload);
+    }
+
+    public record Outcome(PaymentProcessorType winner, CompletableFuture<?> primaryDone) {
+    }
+
+    /**
+     * Histograma log-linear (4 sub-buckets por potência de 2, em microssegundos) das latências recentes,
+     * em duas janelas de {@code windowMillis}: a atual e a anterior. Gravar é um incremento atômico.
+     */
+    private static final class LatencyWindow {
+
+        private static final int BUCKETS = 96;
+
+        private final long windowMillis;
+        private final AtomicLong nextRotationMillis;
+        private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+        private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+
+        LatencyWindow(long windowMillis) {
+            this.windowMillis = windowMillis;
+            this.nextRotationMillis = new AtomicLong(System.currentTimeMillis() + windowMillis);
+        }
+
+        void record(long nanos) {
+            long now = System.currentTimeMillis();
+            long rotation = nextRotationMillis.get();
+            if (now >= rotation && nextRotationMillis.compareAndSet(rotation, now + windowMillis)) {
+                previous = current;
+                current = new AtomicLongArray(BUCKETS);
+            }
+            current.incrementAndGet(bucketOf(nanos / 1_000));
+        }
+
+        /**
+         * Limite superior do bucket que contém o quantil, ou -1 com menos de {@link #MIN_SAMPLES} amostras.
+         */
+        long quantileNanos(double quantile) {
+            AtomicLongArray recent = current;
+            AtomicLongArray older = previous;
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = recent.get(i) + older.get(i);
+                total += counts[i];
+            }
+            if (total < MIN_SAMPLES) {
+                return -1;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBoundMicros(i) * 1_000;
+                }
+            }
+            return upperBoundMicros(BUCKETS - 1) * 1_000;
+        }
+
+        static int bucketOf(long micros) {
+            if (micros < 4) {
+                return (int) Math.max(0, micros);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >>> (exponent - 2)) & 3;
+            return Math.min(BUCKETS - 1, (exponent - 1) * 4 + sub);
+        }
+
+        static long upperBoundMicros(int bucket) {
+            if (bucket < 4) {
+                return bucket + 1;
+            }
+            int exponent = bucket / 4 + 1;
+            return (4L + bucket % 4 + 1) << (exponent - 2);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.adapter.http.PeerHandoffClient;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentBatchWriter;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentWriteAheadLog;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Desligamento ordenado do pipeline de pagamentos. Roda depois que o servidor web parou de aceitar conexões:
+ * recusa novos pagamentos, devolve os retries agendados à fila e deixa os workers drenarem a fila até
+ * {@code drain-timeout-ms}. Em seguida para os workers, aguarda o flush do MongoDB e repassa o que sobrou
+ * a um peer; o que o peer não aceitar permanece no write-ahead log para o próximo início.
+ */
+@Component
+public class PaymentPipelineLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPipelineLifecycle.class);
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Abaixo das fases do servidor web (graceful shutdown e stop), para parar somente depois dele.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PaymentService paymentService;
+    private final PaymentPriorityBlockingQueue paymentsQueue;
+    private final PaymentRetryScheduler retryScheduler;
+    private final AdaptiveWorkerPool workerPool;
+    private final PaymentBatchWriter paymentBatchWriter;
+    private final PaymentWriteAheadLog writeAheadLog;
+    private final PeerHandoffClient peerHandoffClient;
+    private final long drainTimeoutNanos;
+    private volatile boolean running;
+
+    public PaymentPipelineLifecycle(PaymentService paymentService,
+                                    PaymentPriorityBlockingQueue paymentsQueue,
+                                    PaymentRetryScheduler retryScheduler,
+                                    AdaptiveWorkerPool workerPool,
+                                    PaymentBatchWriter paymentBatchWriter,
+                                    PaymentWriteAheadLog writeAheadLog,
+                                    PeerHandoffClient peerHandoffClient,
+                                    @Value("${app.shutdown.drain-timeout-ms}") long drainTimeoutMillis) {
+        this.paymentService = paymentService;
+        this.paymentsQueue = paymentsQueue;
+        this.retryScheduler = retryScheduler;
+        this.workerPool = workerPool;
+        this.paymentBatchWriter = paymentBatchWriter;
+        this.writeAheadLog = writeAheadLog;
+        this.peerHandoffClient = peerHandoffClient;
+        this.drainTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        long start = System.nanoTime();
+        long deadline = start + drainTimeoutNanos;
+        paymentService.stopAccepting();
+        int pendingAtStop = paymentsQueue.size() + retryScheduler.pending() + workerPool.busyWorkers();
+
+        while (System.nanoTime() < deadline) {
+            retryScheduler.releaseAll();
+            if (paymentsQueue.size() == 0 && workerPool.busyWorkers() == 0 && retryScheduler.pending() == 0) {
+                break;
+            }
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+        }
+        boolean workersStopped = workerPool.stop(deadline);
+        boolean flushed = paymentBatchWriter.awaitFlush();
+
+        retryScheduler.releaseAll();
+        List<PaymentsProcess> leftover = new ArrayList<>(paymentsQueue.drain());
+        leftover.addAll(retryScheduler.drain());
+        boolean handedOff = peerHandoffClient.hasPeers()
+                && peerHandoffClient.handOff(leftover.stream().map(PaymentsProcess::payment).toList());
+        leftover.forEach(paymentsProcess -> paymentService.release(paymentsProcess, handedOff));
+
+        int toPeer = handedOff ? leftover.size() : 0;
+        int toLog = !handedOff && writeAheadLog.isEnabled() ? leftover.size() : 0;
+        int lost = leftover.size() - toPeer - toLog;
+        logger.info("Payment pipeline stopped in {} ms: {} drained, {} handed off to peer, {} kept in write-ahead log, {} lost "
+                        + "(workers stopped: {}, writes flushed: {})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Math.max(0, pendingAtStop - leftover.size()),
+                toPeer, toLog, lost, workersStopped, flushed);
+        if (lost > 0) {
+            logger.warn("{} accepted payments were lost on shutdown: no peer took them and the write-ahead log is disabled", lost);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
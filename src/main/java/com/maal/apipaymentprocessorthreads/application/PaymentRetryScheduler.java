@@ -0,0 +1,215 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.QueueOverflowPolicy;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorHealthSnapshot;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Agenda o retorno de pagamentos que falharam para a fila, liberando o worker imediatamente.
+ * O atraso cresce exponencialmente com o retryCount, recebe jitter para espalhar os retries
+ * e nunca é menor que o tempo mínimo de resposta informado pelo health-check do processor escolhido.
+ * A espera é limitada a {@code capacity} pagamentos; cheia, vale a {@code overflow-policy}: BLOCK espera até
+ * {@code offer-timeout-ms} por espaço, SPILL devolve o pagamento à fila antes do atraso e REJECT o recusa.
+ */
+@Component
+public class PaymentRetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRetryScheduler.class);
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final PaymentPriorityBlockingQueue paymentsQueue;
+    private final ProcessorHealthMonitor processorHealthMonitor;
+    private final DelayQueue<DelayedPayment> delayed = new DelayQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final QueueOverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long holdDelayMillis;
+    private volatile Thread dispatcher;
+
+    public PaymentRetryScheduler(PaymentPriorityBlockingQueue paymentsQueue,
+                                 ProcessorHealthMonitor processorHealthMonitor,
+                                 @Value("${app.payment-processor.retry.base-delay-ms}") long baseDelayMillis,
+                                 @Value("${app.payment-processor.retry.max-delay-ms}") long maxDelayMillis,
+                                 @Value("${app.payment-processor.retry.hold-delay-ms}") long holdDelayMillis,
+                                 @Value("${app.payment-processor.retry.capacity}") int capacity,
+                                 @Value("${app.payment-processor.retry.overflow-policy}") QueueOverflowPolicy overflowPolicy,
+                                 @Value("${app.payment-processor.retry.offer-timeout-ms}") long offerTimeoutMillis) {
+        this.paymentsQueue = paymentsQueue;
+        this.processorHealthMonitor = processorHealthMonitor;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.holdDelayMillis = holdDelayMillis;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Thread.ofVirtual().name("payment-retry-scheduler").start(this::dispatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+    }
+
+    /**
+     * Agenda o pagamento aplicando a política de overflow. Retorna false quando ele foi recusado por falta de espaço:
+     * o pagamento continua aceito e cabe ao chamador decidir o que fazer com ele.
+     */
+    public boolean schedule(PaymentsProcess paymentsProcess) {
+        DelayedPayment delayedPayment = delayedPayment(paymentsProcess);
+        if (tryOffer(delayedPayment)) {
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + offerTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (tryOffer(delayedPayment)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case SPILL -> {
+                return paymentsQueue.addToLastQueue(paymentsProcess);
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Devolve imediatamente à fila os pagamentos ainda em espera, sem respeitar o atraso.
+     * Os que não couberem na fila continuam agendados; retorna quantos voltaram.
+     */
+    public int releaseAll() {
+        int requeued = 0;
+        for (DelayedPayment delayedPayment : takeAll()) {
+            if (paymentsQueue.addToLastQueue(delayedPayment.paymentsProcess())) {
+                requeued++;
+            } else {
+                forceOffer(delayedPayment);
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * Remove e retorna todos os pagamentos ainda em espera (usado no desligamento, depois de {@link #releaseAll()}).
+     */
+    public List<PaymentsProcess> drain() {
+        return takeAll().stream().map(DelayedPayment::paymentsProcess).toList();
+    }
+
+    public int pending() {
+        return size.get();
+    }
+
+    long delayFor(PaymentsProcess paymentsProcess) {
+        ProcessorRoute route = processorHealthMonitor.route();
+        if (route == ProcessorRoute.HOLD) {
+            return holdDelayMillis;
+        }
+
+        int exponent = Math.min(paymentsProcess.retryCount(), MAX_BACKOFF_EXPONENT);
+        long backoff = Math.min(maxDelayMillis, baseDelayMillis << exponent);
+        long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return Math.max(jittered, minResponseTimeOf(route));
+    }
+
+    private long minResponseTimeOf(ProcessorRoute route) {
+        ProcessorHealthSnapshot snapshot = processorHealthMonitor.snapshot();
+        HealthStatus healthStatus = route == ProcessorRoute.FALLBACK ? snapshot.fallbackHealth() : snapshot.defaultHealth();
+        return healthStatus == null ? 0 : healthStatus.minResponseTime();
+    }
+
+    private DelayedPayment delayedPayment(PaymentsProcess paymentsProcess) {
+        return new DelayedPayment(paymentsProcess, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayFor(paymentsProcess)));
+    }
+
+    private boolean tryOffer(DelayedPayment delayedPayment) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        delayed.offer(delayedPayment);
+        return true;
+    }
+
+    /**
+     * Devolve à espera um pagamento que acabou de sair dela; o espaço era dele, por isso não passa pelo limite.
+     */
+    private void forceOffer(DelayedPayment delayedPayment) {
+        size.incrementAndGet();
+        delayed.offer(delayedPayment);
+    }
+
+    private List<DelayedPayment> takeAll() {
+        List<DelayedPayment> taken = new ArrayList<>();
+        delayed.drainTo(taken);
+        for (DelayedPayment delayedPayment : List.copyOf(delayed)) {
+            if (delayed.remove(delayedPayment)) {
+                taken.add(delayedPayment);
+            }
+        }
+        size.addAndGet(-taken.size());
+        return taken;
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PaymentsProcess paymentsProcess = delayed.take().paymentsProcess();
+                size.decrementAndGet();
+                if (!paymentsQueue.addToLastQueue(paymentsProcess)) {
+                    forceOffer(delayedPayment(paymentsProcess));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error dispatching delayed payment: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private record DelayedPayment(PaymentsProcess paymentsProcess, long dueAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtNanos, ((DelayedPayment) other).dueAtNanos);
+        }
+    }
+}
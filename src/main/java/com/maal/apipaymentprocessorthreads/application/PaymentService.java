@@ -1,24 +1,40 @@
 package com.maal.apipaymentprocessorthreads.application;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.maal.apipaymentprocessorthreads.adapter.http.LoadSheddingException;
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentPayloadEncoder;
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentPayloadPool;
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PipelineMetrics;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentBatchWriter;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentIdempotencyCache;
 import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentStorage;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentSummaryIndex;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentWriteAheadLog;
 import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
 import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
 import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentProcessorManualClient;
+import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentRoutingStrategy;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
 import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
 import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.domain.model.RoutingContext;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.StampedLock;
 
 
 @Service
@@ -29,102 +45,444 @@ public class PaymentService {
     private final PaymentPriorityBlockingQueue paymentsQueue;
     private final PaymentProcessorManualClient paymentProcessorDefaultClient;
     private final PaymentProcessorManualClient paymentProcessorFallbackClient;
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-    private final ObjectMapper objectMapper;
-    private final MongoTemplate mongoTemplate;
+    private final ProcessorHealthMonitor processorHealthMonitor;
+    private final PaymentRetryScheduler retryScheduler;
+    private final PaymentPayloadPool paymentPayloadPool;
+    private final PaymentBatchWriter paymentBatchWriter;
+    private final PaymentSummaryIndex paymentSummaryIndex;
+    private final PaymentStorage paymentStorage;
+    private final PipelineMetrics pipelineMetrics;
+    private final PaymentWriteAheadLog writeAheadLog;
+    private final PaymentRoutingStrategy routingStrategy;
+    private final ProcessorStatsTracker processorStatsTracker;
+    private final AdaptiveWorkerPool workerPool;
+    private final PaymentIdempotencyCache idempotencyCache;
+    private final PaymentHedger paymentHedger;
+    private final String instanceId;
     private final int maxRetries;
-    private final int maxVirtualThreads;
+    private volatile boolean accepting = true;
+    private final StampedLock purgeLock = new StampedLock();
+    private volatile long generation;
+    private volatile long purgedBefore;
+    private long purgeStamp;
     
     public PaymentService(PaymentPriorityBlockingQueue paymentsQueue,
                           @Qualifier(value = "paymentProcessorDefaultHttpClient") PaymentProcessorManualClient paymentProcessorDefaultClient,
                           @Qualifier(value = "paymentProcessorFallbackHttpClient") PaymentProcessorManualClient paymentProcessorFallbackClient,
-                          ObjectMapper objectMapper,
-                          MongoTemplate mongoTemplate,
-                          @Value("${app.payment-processor.maxVirtualThreads}") int maxVirtualThreads,
+                          ProcessorHealthMonitor processorHealthMonitor,
+                          PaymentRetryScheduler retryScheduler,
+                          PaymentPayloadPool paymentPayloadPool,
+                          PaymentBatchWriter paymentBatchWriter,
+                          PaymentSummaryIndex paymentSummaryIndex,
+                          PaymentStorage paymentStorage,
+                          PipelineMetrics pipelineMetrics,
+                          PaymentWriteAheadLog writeAheadLog,
+                          PaymentRoutingStrategy routingStrategy,
+                          ProcessorStatsTracker processorStatsTracker,
+                          AdaptiveWorkerPool workerPool,
+                          PaymentIdempotencyCache idempotencyCache,
+                          PaymentHedger paymentHedger,
+                          @Value("${app.instance-id}") String instanceId,
                           @Value("${app.payment-processor.max-retries}") int maxRetries
     ) {
         this.paymentsQueue = paymentsQueue;
         this.paymentProcessorDefaultClient = paymentProcessorDefaultClient;
         this.paymentProcessorFallbackClient = paymentProcessorFallbackClient;
-        this.objectMapper = objectMapper;
-        this.mongoTemplate = mongoTemplate;
-        this.maxVirtualThreads = maxVirtualThreads;
+        this.processorHealthMonitor = processorHealthMonitor;
+        this.retryScheduler = retryScheduler;
+        this.paymentPayloadPool = paymentPayloadPool;
+        this.paymentBatchWriter = paymentBatchWriter;
+        this.paymentSummaryIndex = paymentSummaryIndex;
+        this.paymentStorage = paymentStorage;
+        this.pipelineMetrics = pipelineMetrics;
+        this.writeAheadLog = writeAheadLog;
+        this.routingStrategy = routingStrategy;
+        this.processorStatsTracker = processorStatsTracker;
+        this.workerPool = workerPool;
+        this.idempotencyCache = idempotencyCache;
+        this.paymentHedger = paymentHedger;
+        this.instanceId = instanceId;
         this.maxRetries = maxRetries;
       
     }
 
     @PostConstruct
     public void init() {
-        for (int i = 0; i < maxVirtualThreads; i++) {
-            executor.submit(this::runWorker);
-        }
-        logger.info("Payment service started. Max virtual threads: {}", maxVirtualThreads);
+        replayWriteAheadLog();
+        workerPool.start(this::process);
+        logger.info("Payment service started");
     }
 
 
-    public void paymentRequest(PaymentRequest request) throws JsonProcessingException {
-        Payment payment = new Payment(
-                request.correlationId(),
-                request.amount()
-        );
-        String paymentAsJson = objectMapper.writeValueAsString(payment);
-        paymentsQueue.addToQueue(new PaymentsProcess(paymentAsJson, payment, 0));
+    public boolean paymentRequest(PaymentRequest request) {
+        return paymentRequest(request.correlationId(), Amounts.toCents(request.amount()));
     }
 
-    private void runWorker() {
-        while (true) {
-            var paymentProcess = paymentsQueue.fetchPayment();
-            if (paymentProcess.isPresent()) {
-                try{
-                    processPayment(paymentProcess.get());
-                }
-                catch (Exception e) {
-                    logger.error("Error processing payment: {}", e.getMessage(), e);
-                }
+    /**
+     * Um correlationId já conhecido é confirmado sem ser enfileirado de novo.
+     */
+    public boolean paymentRequest(UUID correlationId, long amountInCents) {
+        if (!accepting) {
+            return false;
+        }
+        if (!idempotencyCache.tryAccept(correlationId)) {
+            pipelineMetrics.recordDuplicate(true);
+            return true;
+        }
+        long start = System.nanoTime();
+        Payment payment = new Payment(correlationId, amountInCents);
+        PaymentPayload payload = paymentPayloadPool.acquire();
+        PaymentPayloadEncoder.encode(payment, payload);
+        PaymentsProcess paymentsProcess = new PaymentsProcess(payload, payment, 0);
+        paymentsProcess.setGeneration(generation);
+        paymentsProcess.setWalPosition(writeAheadLog.append(payment));
+        boolean accepted = paymentsQueue.addToQueue(paymentsProcess);
+        if (accepted) {
+            workerPool.recordArrival();
+        } else {
+            idempotencyCache.forget(correlationId);
+            writeAheadLog.markCompleted(paymentsProcess.walPosition());
+            paymentPayloadPool.release(payload);
+        }
+        pipelineMetrics.recordIngest(accepted, System.nanoTime() - start);
+        return accepted;
+    }
+
+    /**
+     * True quando {@link #paymentRequest(UUID, long)} pode bloquear esperando espaço na fila;
+     * nesse caso ele não deve ser chamado de uma thread de IO.
+     */
+    public boolean mayBlockOnIngest() {
+        return paymentsQueue.mayBlock();
+    }
+
+    /**
+     * Recebe os pagamentos repassados por um peer que está desligando. Eles já foram aceitos pelo peer,
+     * por isso entram no log e na fila de retries sem passar pela política de overflow.
+     */
+    public boolean acceptHandoff(List<Payment> payments) {
+        if (!accepting) {
+            return false;
+        }
+        for (Payment payment : payments) {
+            if (idempotencyCache.tryAccept(payment.correlationId())) {
+                recover(payment, writeAheadLog.append(payment));
             }
         }
+        logger.info("Accepted {} payments handed off by a peer", payments.size());
+        return true;
     }
 
-    private void processPayment(PaymentsProcess paymentsProcess) {
-        boolean isProcessed = false;
-        for (int i = 0; i < 15; i++) {
-            if (paymentProcessorDefaultClient.processPayment(paymentsProcess.paymentInJson())) {
-                savePayment(paymentsProcess, PaymentProcessorType.DEFAULT);
-                isProcessed = true;
-                break;
+    /**
+     * A partir daqui novos pagamentos são recusados (HTTP 503); usado no desligamento.
+     */
+    public void stopAccepting() {
+        accepting = false;
+    }
+
+    /**
+     * Libera um pagamento que não será mais processado por esta instância. Se {@code handedOff} for true,
+     * outra instância assumiu o pagamento e a entrada no log é concluída; caso contrário ela permanece
+     * para ser reprocessada no próximo início.
+     */
+    public void release(PaymentsProcess paymentsProcess, boolean handedOff) {
+        if (handedOff) {
+            writeAheadLog.markCompleted(paymentsProcess.walPosition());
+        }
+        paymentPayloadPool.release(paymentsProcess.payload());
+    }
+
+    /**
+     * Abre o fence de purge desta instância e inicia uma nova geração: o que já estava no batch writer é gravado e,
+     * até o fence ser fechado, nenhum worker grava pagamentos (ficam bloqueados em {@link #savePayment}).
+     * Nada é descartado ou limpo aqui, para que um purge abortado ({@link #abortPurge(long)}) não perca estado;
+     * isso só acontece em {@link #commitPurge(long)}. Retorna a nova geração.
+     */
+    public synchronized long beginPurge() {
+        if (purgeStamp != 0) {
+            return generation;
+        }
+        purgeStamp = purgeLock.writeLock();
+        long current = ++generation;
+        if (!paymentBatchWriter.awaitFlush()) {
+            logger.warn("Batch writer did not flush before purge; some purged payments may still be written");
+        }
+        logger.info("Purge fence opened for generation {}", current);
+        return current;
+    }
+
+    /**
+     * As coleções foram recriadas: os pagamentos de gerações anteriores passam a ser descartados (os da fila e dos
+     * retries agora, os que estão com os workers ao passar por {@link #savePayment}), o índice em memória e o cache
+     * de idempotência são limpos e o fence é fechado, se ainda for o da geração informada.
+     */
+    public synchronized void commitPurge(long purgeGeneration) {
+        if (purgeStamp == 0 || generation != purgeGeneration) {
+            return;
+        }
+        purgedBefore = purgeGeneration;
+        retryScheduler.releaseAll();
+        int discarded = 0;
+        for (PaymentsProcess paymentsProcess : paymentsQueue.drain()) {
+            if (isPurged(paymentsProcess)) {
+                discard(paymentsProcess);
+                discarded++;
+            } else {
+                requeue(paymentsProcess);
             }
+        }
+        paymentSummaryIndex.clear();
+        idempotencyCache.clear();
+        closeFence(purgeGeneration);
+        logger.info("Purge committed for generation {}. Discarded {} queued payments", purgeGeneration, discarded);
+    }
+
+    /**
+     * O purge não chegou a remover as coleções: o fence é fechado e os pagamentos da geração anterior seguem
+     * válidos, com o índice em memória e o cache de idempotência intactos.
+     */
+    public synchronized void abortPurge(long purgeGeneration) {
+        if (purgeStamp == 0 || generation != purgeGeneration) {
+            return;
+        }
+        closeFence(purgeGeneration);
+        logger.info("Purge aborted for generation {}; in-memory state kept", purgeGeneration);
+    }
+
+    private void closeFence(long purgeGeneration) {
+        purgeLock.unlockWrite(purgeStamp);
+        purgeStamp = 0;
+        logger.info("Purge fence closed for generation {}", purgeGeneration);
+    }
 
-            if (paymentProcessorFallbackClient.processPayment(paymentsProcess.paymentInJson())) {
-                savePayment(paymentsProcess, PaymentProcessorType.FALLBACK);
-                isProcessed = true;
-                break;
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * O log pode ter entradas já gravadas no MongoDB cujo COMPLETED não chegou ao disco antes de uma queda.
+     * Elas já estão no índice em memória (reconstruído do MongoDB) e são apenas concluídas; reenviá-las ao processor
+     * faria o 422 de duplicata contar como sucesso e o pagamento entrar no índice duas vezes.
+     */
+    private void replayWriteAheadLog() {
+        Map<UUID, Long> unfinished = new LinkedHashMap<>();
+        Map<UUID, Payment> payments = new LinkedHashMap<>();
+        writeAheadLog.replay((payment, walPosition) -> {
+            Long previous = unfinished.put(payment.correlationId(), walPosition);
+            if (previous != null) {
+                writeAheadLog.markCompleted(previous);
+            }
+            payments.put(payment.correlationId(), payment);
+        });
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        Set<UUID> persisted = Set.of();
+        try {
+            persisted = paymentStorage.persisted(new ArrayList<>(unfinished.keySet()));
+        } catch (Exception e) {
+            logger.warn("Could not check replayed payments against MongoDB, replaying all {}: {}", unfinished.size(), e.getMessage());
+        }
+        for (Map.Entry<UUID, Long> entry : unfinished.entrySet()) {
+            if (persisted.contains(entry.getKey())) {
+                writeAheadLog.markCompleted(entry.getValue());
+            } else {
+                recover(payments.get(entry.getKey()), entry.getValue());
             }
+        }
+        logger.info("Write-ahead log replay: {} already persisted, {} requeued", persisted.size(), unfinished.size() - persisted.size());
+    }
+
+    /**
+     * Pagamento aceito antes de um reinício e ainda não gravado: volta para a fila com a mesma posição no log.
+     */
+    private void recover(Payment payment, long walPosition) {
+        PaymentPayload payload = paymentPayloadPool.acquire();
+        PaymentPayloadEncoder.encode(payment, payload);
+        PaymentsProcess paymentsProcess = new PaymentsProcess(payload, payment, 0);
+        paymentsProcess.setGeneration(generation);
+        paymentsProcess.setWalPosition(walPosition);
+        requeue(paymentsProcess);
+    }
+
+    /**
+     * Pagamento já aceito volta para a fila; se ela estiver cheia, espera no agendador de retries.
+     */
+    private void requeue(PaymentsProcess paymentsProcess) {
+        if (!paymentsQueue.addToLastQueue(paymentsProcess) && !retryScheduler.schedule(paymentsProcess)) {
+            retryRejected(paymentsProcess);
+        }
+    }
+
+    /**
+     * Só um worker por vez processa um correlationId; cópias de um pagamento já concluído ou em andamento são descartadas.
+     */
+    private void process(PaymentsProcess paymentsProcess) {
+        pipelineMetrics.recordQueueWait(System.nanoTime() - paymentsProcess.enqueuedAtNanos());
+        if (isPurged(paymentsProcess)) {
+            discard(paymentsProcess);
+            return;
+        }
+        if (!idempotencyCache.tryClaim(paymentsProcess.payment().correlationId())) {
+            pipelineMetrics.recordDuplicate(false);
+            writeAheadLog.markCompleted(paymentsProcess.walPosition());
+            paymentPayloadPool.release(paymentsProcess.payload());
+            return;
+        }
+        processPayment(paymentsProcess);
+    }
+
+    private void processPayment(PaymentsProcess paymentsProcess) {
+        RoutingContext routingContext = routingContext(paymentsProcess);
+        ProcessorRoute route = routingStrategy.route(routingContext);
+        pipelineMetrics.recordRoute(route);
+
+        if (route == ProcessorRoute.HOLD) {
+            reschedule(paymentsProcess);
+            return;
+        }
+
+        boolean processorFailed = false;
+        if (route == ProcessorRoute.DEFAULT) {
             try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                if (paymentHedger.isEnabled()) {
+                    PaymentHedger.Outcome outcome = paymentHedger.call(paymentsProcess.payload(), this::callProcessor);
+                    if (outcome.winner() != null) {
+                        savePayment(paymentsProcess, outcome.winner(), outcome.primaryDone());
+                        return;
+                    }
+                } else if (callProcessor(PaymentProcessorType.DEFAULT, paymentsProcess.payload())) {
+                    savePayment(paymentsProcess, PaymentProcessorType.DEFAULT);
+                    return;
+                }
+                processorFailed = true;
+            } catch (LoadSheddingException e) {
+                pipelineMetrics.recordShed(PaymentProcessorType.DEFAULT);
             }
         }
 
-        if (!isProcessed) {
-            if (paymentsProcess.retryCount() < maxRetries) {
-                paymentsProcess.incrementRetryCount();
-                paymentsQueue.addToLastQueue(paymentsProcess);
+        if (route == ProcessorRoute.FALLBACK || routingStrategy.failoverToFallback(routingContext)) {
+            try {
+                if (callProcessor(PaymentProcessorType.FALLBACK, paymentsProcess.payload())) {
+                    savePayment(paymentsProcess, PaymentProcessorType.FALLBACK);
+                    return;
+                }
+                processorFailed = true;
+            } catch (LoadSheddingException e) {
+                pipelineMetrics.recordShed(PaymentProcessorType.FALLBACK);
             }
-            else {
-                logger.warn("Payment with correlation ID {} failed after {} retries",
-                            paymentsProcess.payment().correlationId(), maxRetries);
+        }
+
+        if (!processorFailed) {
+            reschedule(paymentsProcess);
+            return;
+        }
+
+        if (paymentsProcess.retryCount() < maxRetries) {
+            paymentsProcess.incrementRetryCount();
+            pipelineMetrics.recordRetry(paymentsProcess.retryCount());
+            reschedule(paymentsProcess);
+        }
+        else {
+            logger.warn("Payment with correlation ID {} failed after {} retries",
+                        paymentsProcess.payment().correlationId(), maxRetries);
+            pipelineMetrics.recordRetriesExhausted();
+            idempotencyCache.forget(paymentsProcess.payment().correlationId());
+            writeAheadLog.markCompleted(paymentsProcess.walPosition());
+            paymentPayloadPool.release(paymentsProcess.payload());
+        }
+    }
+
+    private void reschedule(PaymentsProcess paymentsProcess) {
+        idempotencyCache.release(paymentsProcess.payment().correlationId());
+        if (!retryScheduler.schedule(paymentsProcess)) {
+            retryRejected(paymentsProcess);
+        }
+    }
+
+    /**
+     * Agendador de retries cheio: o pagamento sai da memória, mas a entrada no log continua pendente
+     * e ele volta no próximo início (com o log desativado, é perdido).
+     */
+    private void retryRejected(PaymentsProcess paymentsProcess) {
+        logger.warn("Retry scheduler full, payment with correlation ID {} left for the write-ahead log replay",
+                paymentsProcess.payment().correlationId());
+        pipelineMetrics.recordRetryRejected();
+        idempotencyCache.forget(paymentsProcess.payment().correlationId());
+        paymentPayloadPool.release(paymentsProcess.payload());
+    }
+
+    private boolean callProcessor(PaymentProcessorType type, PaymentPayload payload) {
+        PaymentProcessorManualClient client = type == PaymentProcessorType.DEFAULT
+                ? paymentProcessorDefaultClient : paymentProcessorFallbackClient;
+        long start = System.nanoTime();
+        boolean processed = client.processPayment(payload);
+        long elapsed = System.nanoTime() - start;
+        pipelineMetrics.recordProcessorCall(type, processed, elapsed);
+        processorStatsTracker.record(type, processed, elapsed);
+        paymentHedger.recordLatency(type, processed, elapsed);
+        return processed;
+    }
+
+    private RoutingContext routingContext(PaymentsProcess paymentsProcess) {
+        return new RoutingContext(
+                processorHealthMonitor.freshSnapshot(),
+                processorStatsTracker.stats(PaymentProcessorType.DEFAULT),
+                processorStatsTracker.stats(PaymentProcessorType.FALLBACK),
+                paymentsQueue.size(),
+                workerPool.activeWorkers(),
+                System.currentTimeMillis() - paymentsProcess.payment().requestedAt().toEpochMilli());
+    }
+
+    private boolean isPurged(PaymentsProcess paymentsProcess) {
+        return paymentsProcess.generation() < purgedBefore;
+    }
+
+    /**
+     * Pagamento de uma geração anterior ao último purge: não é gravado nem retentado.
+     */
+    private void discard(PaymentsProcess paymentsProcess) {
+        writeAheadLog.markCompleted(paymentsProcess.walPosition());
+        paymentPayloadPool.release(paymentsProcess.payload());
+    }
+
+    private void savePayment(PaymentsProcess paymentsProcess, PaymentProcessorType type) {
+        savePayment(paymentsProcess, type, null);
+    }
+
+    /**
+     * Com hedging, a chamada original ao default pode continuar em voo depois que o hedge venceu e ainda lê
+     * o buffer do payload; nesse caso o payload só volta ao pool quando {@code inFlight} terminar.
+     */
+    private void savePayment(PaymentsProcess paymentsProcess, PaymentProcessorType type, CompletableFuture<?> inFlight) {
+        long stamp = purgeLock.readLock();
+        try {
+            if (isPurged(paymentsProcess)) {
+                writeAheadLog.markCompleted(paymentsProcess.walPosition());
+            } else {
+                writePayment(paymentsProcess, type);
             }
+        } finally {
+            purgeLock.unlockRead(stamp);
+        }
+        if (inFlight == null || inFlight.isDone()) {
+            paymentPayloadPool.release(paymentsProcess.payload());
+        } else {
+            inFlight.whenComplete((result, error) -> paymentPayloadPool.release(paymentsProcess.payload()));
         }
     }
 
-    private void savePayment (PaymentsProcess paymentsProcess, PaymentProcessorType type){
+    private void writePayment(PaymentsProcess paymentsProcess, PaymentProcessorType type) {
         PaymentDocument paymentDocument = new PaymentDocument();
         paymentDocument.setCorrelationId(String.valueOf(paymentsProcess.payment().correlationId()));
-        paymentDocument.setAmount(paymentsProcess.payment().amount());
+        paymentDocument.setAmount(Amounts.toBigDecimal(paymentsProcess.payment().amountInCents()));
         paymentDocument.setRequestedAt(paymentsProcess.payment().requestedAt());
         paymentDocument.setProcessorType(type);
-        mongoTemplate.insert(paymentDocument, "payments");
+        paymentDocument.setProcessedBy(instanceId);
+        paymentDocument.setWalPosition(paymentsProcess.walPosition());
+        paymentBatchWriter.write(paymentDocument);
+        idempotencyCache.complete(paymentsProcess.payment().correlationId(), type);
+        paymentSummaryIndex.record(type, paymentsProcess.payment().requestedAt(), paymentsProcess.payment().amountInCents());
     }
 
 }
\ No newline at end of file
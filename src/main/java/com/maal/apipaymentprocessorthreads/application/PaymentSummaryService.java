@@ -1,13 +1,19 @@
 package com.maal.apipaymentprocessorthreads.application;
 
-import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPersistenceMongo;
-import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.adapter.http.PeerSummaryClient;
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PipelineMetrics;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentBatchWriter;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentRollupStore;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentStorage;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentSummaryIndex;
+import com.maal.apipaymentprocessorthreads.domain.model.Amounts;
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentTotals;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentSummaryGetResponse;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.SummaryDetailsResponse;
-import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -19,8 +25,8 @@ import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
@@ -33,14 +39,34 @@ public class PaymentSummaryService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentSummaryService.class);
 
     private final MongoTemplate mongoTemplate;
-    private final PaymentPersistenceMongo paymentPersistence;
-
-    public PaymentSummaryService(MongoTemplate mongoTemplate, PaymentPersistenceMongo paymentPersistence) {
+    private final PaymentBatchWriter paymentBatchWriter;
+    private final PaymentSummaryIndex paymentSummaryIndex;
+    private final PaymentRollupStore paymentRollupStore;
+    private final PaymentStorage paymentStorage;
+    private final PeerSummaryClient peerSummaryClient;
+    private final PipelineMetrics pipelineMetrics;
+    private final boolean inMemorySummary;
+
+    public PaymentSummaryService(MongoTemplate mongoTemplate,
+                                 PaymentBatchWriter paymentBatchWriter,
+                                 PaymentSummaryIndex paymentSummaryIndex,
+                                 PaymentRollupStore paymentRollupStore,
+                                 PaymentStorage paymentStorage,
+                                 PeerSummaryClient peerSummaryClient,
+                                 PipelineMetrics pipelineMetrics,
+                                 @Value("${app.payment-summary.source}") String summarySource) {
         this.mongoTemplate = mongoTemplate;
-        this.paymentPersistence = paymentPersistence;
+        this.paymentBatchWriter = paymentBatchWriter;
+        this.paymentSummaryIndex = paymentSummaryIndex;
+        this.paymentRollupStore = paymentRollupStore;
+        this.paymentStorage = paymentStorage;
+        this.peerSummaryClient = peerSummaryClient;
+        this.pipelineMetrics = pipelineMetrics;
+        this.inMemorySummary = "memory".equalsIgnoreCase(summarySource);
     }
 
     public PaymentSummaryGetResponse summary(Instant from, Instant to) {
+        long start = System.nanoTime();
         try {
             if (from == null && to == null) {
                 from = Instant.EPOCH;
@@ -50,42 +76,67 @@ public class PaymentSummaryService {
             } else if (to == null) {
                 to = Instant.now();
             }
-            
+
+            if (inMemorySummary) {
+                Optional<PaymentTotals> local = localTotals(from, to);
+                Optional<PaymentTotals> peerTotals = local.isPresent() ? peerSummaryClient.fetchTotals(from, to) : Optional.empty();
+                if (peerTotals.isPresent()) {
+                    return toResponse(local.get().plus(peerTotals.get()));
+                }
+                logger.warn("Falling back to MongoDB summary: {} totals unavailable", local.isPresent() ? "peer" : "in-memory");
+            }
+
+            paymentBatchWriter.awaitFlush();
+            if (paymentRollupStore.isEnabled()) {
+                return summaryWithRollup(from, to);
+            }
             return summaryWithOptimizedQueries(from, to);
 
         } catch (Exception e) {
             logger.error("Error retrieving payment summary: {}", e.getMessage());
             throw new RuntimeException("Failed to retrieve payment summary", e);
+        } finally {
+            pipelineMetrics.recordSummary(System.nanoTime() - start);
         }
     }
 
+    /**
+     * Totais apenas dos pagamentos processados por esta instância, servidos pelo índice em memória.
+     * Vazio quando o índice não consegue responder as bordas do intervalo.
+     */
+    public Optional<PaymentTotals> localTotals(Instant from, Instant to) {
+        return paymentSummaryIndex.totals(from, to);
+    }
+
+    private static PaymentSummaryGetResponse toResponse(PaymentTotals totals) {
+        return new PaymentSummaryGetResponse(
+                new SummaryDetailsResponse((int) totals.defaultRequests(), Amounts.toBigDecimal(totals.defaultAmountInCents())),
+                new SummaryDetailsResponse((int) totals.fallbackRequests(), Amounts.toBigDecimal(totals.fallbackAmountInCents()))
+        );
+    }
+
+    private PaymentSummaryGetResponse summaryWithRollup(Instant from, Instant to) {
+        try {
+            return toResponse(paymentRollupStore.totals(from, to));
+        } catch (Exception e) {
+            logger.warn("Rollup summary failed, falling back to optimized queries: {}", e.getMessage());
+            return summaryWithOptimizedQueries(from, to);
+        }
+    }
+
+    /**
+     * Varredura por cursor do índice de cobertura, DEFAULT e FALLBACK em paralelo, sem materializar documentos.
+     */
     private PaymentSummaryGetResponse summaryWithOptimizedQueries(Instant from, Instant to) {
         try {
-            List<PaymentDocument> defaultPayments = paymentPersistence.findByProcessorTypeAndRequestedAtBetween(
-                PaymentProcessorType.DEFAULT.name(), from, to);
-            
-            List<PaymentDocument> fallbackPayments = paymentPersistence.findByProcessorTypeAndRequestedAtBetween(
-                PaymentProcessorType.FALLBACK.name(), from, to);
-            
-            BigDecimal defaultAmount = defaultPayments.stream()
-                .map(PaymentDocument::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            BigDecimal fallbackAmount = fallbackPayments.stream()
-                .map(PaymentDocument::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            int defaultRequests = defaultPayments.size();
-            int fallbackRequests = fallbackPayments.size();
-            
-            logger.debug("Summary calculated using optimized queries - Default: {} requests, {} amount. Fallback: {} requests, {} amount", 
-                defaultRequests, defaultAmount, fallbackRequests, fallbackAmount);
-            
-            return new PaymentSummaryGetResponse(
-                    new SummaryDetailsResponse(defaultRequests, defaultAmount),
-                    new SummaryDetailsResponse(fallbackRequests, fallbackAmount)
-            );
+            PaymentTotals totals = paymentStorage.totals(from, to);
+            logger.debug("Summary calculated using covered index scans - Default: {} requests, {} cents. Fallback: {} requests, {} cents",
+                totals.defaultRequests(), totals.defaultAmountInCents(), totals.fallbackRequests(), totals.fallbackAmountInCents());
+            return toResponse(totals);
         } catch (Exception e) {
+            if (paymentStorage.isCompact()) {
+                throw e;
+            }
             logger.warn("Optimized queries failed, falling back to aggregation: {}", e.getMessage());
             return summaryWithAggregation(from, to);
         }
@@ -110,22 +161,22 @@ public class PaymentSummaryService {
         
         AggregationResults<Map> results = mongoTemplate.aggregate(aggregation, "payments", Map.class);
         
-        BigDecimal defaultAmount = BigDecimal.ZERO;
+        long defaultAmountInCents = 0;
         int defaultRequests = 0;
-        BigDecimal fallbackAmount = BigDecimal.ZERO;
+        long fallbackAmountInCents = 0;
         int fallbackRequests = 0;
 
         for (Map result : results.getMappedResults()) {
             try {
                 String processorType = (String) result.get("processorType");
-                BigDecimal totalAmount = new BigDecimal(result.get("totalAmount").toString());
+                long totalAmountInCents = Amounts.toCents(new BigDecimal(result.get("totalAmount").toString()));
                 int totalRequests = (Integer) result.get("totalRequests");
 
                 if ("DEFAULT".equals(processorType)) {
-                    defaultAmount = totalAmount;
+                    defaultAmountInCents = totalAmountInCents;
                     defaultRequests = totalRequests;
                 } else if ("FALLBACK".equals(processorType)) {
-                    fallbackAmount = totalAmount;
+                    fallbackAmountInCents = totalAmountInCents;
                     fallbackRequests = totalRequests;
                 }
             } catch (Exception e) {
@@ -133,9 +184,6 @@ public class PaymentSummaryService {
             }
         }
 
-        return new PaymentSummaryGetResponse(
-                new SummaryDetailsResponse(defaultRequests, defaultAmount),
-                new SummaryDetailsResponse(fallbackRequests, fallbackAmount)
-        );
+        return toResponse(new PaymentTotals(defaultRequests, defaultAmountInCents, fallbackRequests, fallbackAmountInCents));
     }
 }
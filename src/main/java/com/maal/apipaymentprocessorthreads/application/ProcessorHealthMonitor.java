@@ -0,0 +1,191 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.adapter.persistence.ProcessorHealthStore;
+import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentProcessorManualClient;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorHealthSnapshot;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class ProcessorHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessorHealthMonitor.class);
+
+    /**
+     * Os Payment Processors aceitam uma chamada de health-check a cada 5 segundos.
+     * Qualquer intervalo menor resultaria em HTTP 429.
+     */
+    private static final long MIN_INTERVAL_MILLIS = 5000;
+
+    private final PaymentProcessorManualClient paymentProcessorDefaultClient;
+    private final PaymentProcessorManualClient paymentProcessorFallbackClient;
+    private final ProcessorHealthStore processorHealthStore;
+    private final AtomicReference<ProcessorHealthSnapshot> snapshot = new AtomicReference<>(ProcessorHealthSnapshot.UNKNOWN);
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("processor-health-monitor").factory());
+    private final String instanceId;
+    private final long intervalMillis;
+    private final long syncIntervalMillis;
+    private final long leaseTtlMillis;
+    private final int slowThresholdMillis;
+    private volatile boolean leader;
+    private volatile long lastPollMillis;
+
+    public ProcessorHealthMonitor(@Qualifier(value = "paymentProcessorDefaultHttpClient") PaymentProcessorManualClient paymentProcessorDefaultClient,
+                                  @Qualifier(value = "paymentProcessorFallbackHttpClient") PaymentProcessorManualClient paymentProcessorFallbackClient,
+                                  ProcessorHealthStore processorHealthStore,
+                                  @Value("${app.instance-id}") String instanceId,
+                                  @Value("${app.payment-processor.health-check.interval-ms}") long intervalMillis,
+                                  @Value("${app.payment-processor.health-check.sync-interval-ms}") long syncIntervalMillis,
+                                  @Value("${app.payment-processor.health-check.lease-ttl-ms}") long leaseTtlMillis,
+                                  @Value("${app.payment-processor.health-check.slow-threshold-ms}") int slowThresholdMillis) {
+        this.paymentProcessorDefaultClient = paymentProcessorDefaultClient;
+        this.paymentProcessorFallbackClient = paymentProcessorFallbackClient;
+        this.processorHealthStore = processorHealthStore;
+        this.instanceId = instanceId;
+        this.intervalMillis = Math.max(MIN_INTERVAL_MILLIS, intervalMillis);
+        this.syncIntervalMillis = Math.min(syncIntervalMillis, this.intervalMillis);
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler.scheduleWithFixedDelay(this::tick, 0, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Processor health monitor started. Instance: {}, interval: {} ms, sync interval: {} ms",
+                instanceId, intervalMillis, syncIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public ProcessorHealthSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Snapshot atual, ou {@link ProcessorHealthSnapshot#UNKNOWN} se não houver dado recente.
+     */
+    public ProcessorHealthSnapshot freshSnapshot() {
+        ProcessorHealthSnapshot current = snapshot.get();
+        return current.isStale(System.currentTimeMillis(), intervalMillis * 3) ? ProcessorHealthSnapshot.UNKNOWN : current;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * Decide para qual processor o próximo pagamento deve ser enviado.
+     * Sem dados recentes de saúde, mantém o comportamento original (default primeiro).
+     */
+    public ProcessorRoute route() {
+        ProcessorHealthSnapshot current = snapshot.get();
+        if (current.isStale(System.currentTimeMillis(), intervalMillis * 3)) {
+            return ProcessorRoute.DEFAULT;
+        }
+
+        HealthStatus defaultHealth = current.defaultHealth();
+        HealthStatus fallbackHealth = current.fallbackHealth();
+        boolean defaultAvailable = isAvailable(defaultHealth);
+        boolean fallbackAvailable = isAvailable(fallbackHealth);
+
+        if (defaultAvailable && responseTimeOf(defaultHealth) <= slowThresholdMillis) {
+            return ProcessorRoute.DEFAULT;
+        }
+        if (fallbackAvailable && (!defaultAvailable || responseTimeOf(fallbackHealth) < responseTimeOf(defaultHealth))) {
+            return ProcessorRoute.FALLBACK;
+        }
+        if (defaultAvailable) {
+            return ProcessorRoute.DEFAULT;
+        }
+        return ProcessorRoute.HOLD;
+    }
+
+    public boolean isFallbackAvailable() {
+        ProcessorHealthSnapshot current = snapshot.get();
+        return current.isStale(System.currentTimeMillis(), intervalMillis * 3) || isAvailable(current.fallbackHealth());
+    }
+
+    private void publish(ProcessorHealthSnapshot healthSnapshot) {
+        snapshot.set(healthSnapshot);
+    }
+
+    /**
+     * Apenas a instância que detém o lease consulta os processors e publica o snapshot no MongoDB;
+     * as demais leem o snapshot compartilhado. Se o MongoDB estiver indisponível,
+     * cada instância volta a consultar os processors por conta própria.
+     */
+    private void tick() {
+        try {
+            boolean acquired = processorHealthStore.tryAcquireLease(instanceId, leaseTtlMillis);
+            if (acquired != leader) {
+                logger.info("Instance {} {} processor health leadership", instanceId, acquired ? "acquired" : "lost");
+            }
+            leader = acquired;
+
+            if (leader) {
+                if (isPollDue() && refresh()) {
+                    processorHealthStore.publish(snapshot.get());
+                }
+            } else {
+                processorHealthStore.read()
+                        .filter(shared -> shared.updatedAtMillis() > snapshot.get().updatedAtMillis())
+                        .ifPresent(this::publish);
+            }
+        } catch (Exception e) {
+            logger.warn("Error syncing processor health: {}", e.getMessage());
+            leader = false;
+            if (isPollDue()) {
+                refresh();
+            }
+        }
+    }
+
+    private boolean isPollDue() {
+        long lastPoll = Math.max(lastPollMillis, snapshot.get().updatedAtMillis());
+        return System.currentTimeMillis() - lastPoll >= intervalMillis;
+    }
+
+    private boolean refresh() {
+        lastPollMillis = System.currentTimeMillis();
+        try {
+            ProcessorHealthSnapshot previous = snapshot.get();
+            var defaultResponse = paymentProcessorDefaultClient.serviceHealth();
+            var fallbackResponse = paymentProcessorFallbackClient.serviceHealth();
+            if (defaultResponse.isEmpty() && fallbackResponse.isEmpty()) {
+                return false;
+            }
+            HealthStatus defaultHealth = defaultResponse.orElse(previous.defaultHealth());
+            HealthStatus fallbackHealth = fallbackResponse.orElse(previous.fallbackHealth());
+            publish(new ProcessorHealthSnapshot(defaultHealth, fallbackHealth, System.currentTimeMillis()));
+            logger.debug("Processor health updated - Default: {}, Fallback: {}", defaultHealth, fallbackHealth);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Error refreshing processor health: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isAvailable(HealthStatus healthStatus) {
+        return healthStatus != null && !healthStatus.failing();
+    }
+
+    private static int responseTimeOf(HealthStatus healthStatus) {
+        return healthStatus == null ? 0 : healthStatus.minResponseTime();
+    }
+}
@@ -0,0 +1,75 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EWMAs de latência e de sucesso por processor, alimentadas por cada chamada feita pelos workers.
+ * Diferente do health-check (um dado a cada 5 s), reflete o que os pagamentos realmente estão encontrando.
+ */
+@Component
+public class ProcessorStatsTracker {
+
+    private final double alpha;
+    private final Ewma[] latencyMillis = new Ewma[PaymentProcessorType.values().length];
+    private final Ewma[] successRate = new Ewma[PaymentProcessorType.values().length];
+    private final AtomicLong[] updatedAtMillis = new AtomicLong[PaymentProcessorType.values().length];
+
+    public ProcessorStatsTracker(@Value("${app.payment-routing.ewma-alpha}") double alpha) {
+        this.alpha = alpha;
+        for (int i = 0; i < latencyMillis.length; i++) {
+            latencyMillis[i] = new Ewma(ProcessorStats.UNKNOWN.latencyMillis());
+            successRate[i] = new Ewma(ProcessorStats.UNKNOWN.successRate());
+            updatedAtMillis[i] = new AtomicLong();
+        }
+    }
+
+    public void record(PaymentProcessorType type, boolean processed, long nanos) {
+        int index = type.ordinal();
+        latencyMillis[index].update(nanos / 1_000_000.0, alpha);
+        successRate[index].update(processed ? 1.0 : 0.0, alpha);
+        updatedAtMillis[index].set(System.currentTimeMillis());
+    }
+
+    public ProcessorStats stats(PaymentProcessorType type) {
+        int index = type.ordinal();
+        return new ProcessorStats(latencyMillis[index].get(), successRate[index].get(), updatedAtMillis[index].get());
+    }
+
+    public Map<String, Object> metrics(PaymentProcessorType type) {
+        ProcessorStats stats = stats(type);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("latencyEwmaMillis", stats.latencyMillis());
+        metrics.put("successRateEwma", stats.successRate());
+        return metrics;
+    }
+
+    private static final class Ewma {
+
+        private final AtomicLong bits;
+
+        Ewma(double initial) {
+            this.bits = new AtomicLong(Double.doubleToLongBits(initial));
+        }
+
+        void update(double sample, double alpha) {
+            while (true) {
+                long current = bits.get();
+                double next = Double.longBitsToDouble(current) + alpha * (sample - Double.longBitsToDouble(current));
+                if (bits.compareAndSet(current, Double.doubleToLongBits(next))) {
+                    return;
+                }
+            }
+        }
+
+        double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.maal.apipaymentprocessorthreads.application;
+
+import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentRoutingStrategy;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorStats;
+import com.maal.apipaymentprocessorthreads.domain.model.RoutingContext;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Política que maximiza o valor líquido das taxas. O valor esperado de cada processor é
+ * {@code sucesso_ewma * (1 - taxa)}; o default é preferido enquanto valer pelo menos o mesmo que o fallback
+ * e o pagamento puder esperar por ele. Esperar pelo default custa tempo: a espera estimada é a idade do pagamento
+ * mais o tempo para escoar a fila no ritmo do default ({@code fila / workers * latência_ewma}).
+ * Só se paga a taxa do fallback quando essa espera passa de {@code max-wait-ms}; antes disso, com o default fora,
+ * o pagamento é adiado (HOLD).
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment-routing.strategy", havingValue = "profit")
+public class ProfitRoutingStrategy implements PaymentRoutingStrategy {
+
+    private final double defaultFee;
+    private final double fallbackFee;
+    private final long maxWaitMillis;
+    private final long statsMaxAgeMillis;
+
+    public ProfitRoutingStrategy(@Value("${app.payment-routing.default-fee}") double defaultFee,
+                                 @Value("${app.payment-routing.fallback-fee}") double fallbackFee,
+                                 @Value("${app.payment-routing.max-wait-ms}") long maxWaitMillis,
+                                 @Value("${app.payment-routing.stats-max-age-ms}") long statsMaxAgeMillis) {
+        this.defaultFee = defaultFee;
+        this.fallbackFee = fallbackFee;
+        this.maxWaitMillis = maxWaitMillis;
+        this.statsMaxAgeMillis = statsMaxAgeMillis;
+    }
+
+    @Override
+    public ProcessorRoute route(RoutingContext context) {
+        long now = System.currentTimeMillis();
+        ProcessorStats defaultStats = fresh(context.defaultStats(), now);
+        ProcessorStats fallbackStats = fresh(context.fallbackStats(), now);
+        boolean defaultUp = isUp(context.health().defaultHealth());
+        boolean fallbackUp = isUp(context.health().fallbackHealth());
+
+        if (!defaultUp && !fallbackUp) {
+            return ProcessorRoute.HOLD;
+        }
+        if (!fallbackUp) {
+            return ProcessorRoute.DEFAULT;
+        }
+        if (!defaultUp) {
+            return context.paymentAgeMillis() < maxWaitMillis ? ProcessorRoute.HOLD : ProcessorRoute.FALLBACK;
+        }
+
+        double defaultValue = defaultStats.successRate() * (1 - defaultFee);
+        double fallbackValue = fallbackStats.successRate() * (1 - fallbackFee);
+        if (defaultValue >= fallbackValue && expectedWaitMillis(context, defaultStats) <= maxWaitMillis) {
+            return ProcessorRoute.DEFAULT;
+        }
+        if (defaultValue >= fallbackValue && fallbackStats.latencyMillis() >= defaultStats.latencyMillis()) {
+            return ProcessorRoute.DEFAULT;
+        }
+        return ProcessorRoute.FALLBACK;
+    }
+
+    @Override
+    public boolean failoverToFallback(RoutingContext context) {
+        return isUp(context.health().fallbackHealth()) && context.paymentAgeMillis() >= maxWaitMillis;
+    }
+
+    /**
+     * Sem chamadas recentes a EWMA não diz mais nada sobre o processor; volta ao otimismo inicial
+     * para que um processor recuperado volte a receber tráfego.
+     */
+    private ProcessorStats fresh(ProcessorStats stats, long now) {
+        return stats.isStale(now, statsMaxAgeMillis) ? ProcessorStats.UNKNOWN : stats;
+    }
+
+    private static double expectedWaitMillis(RoutingContext context, ProcessorStats defaultStats) {
+        double latencyMillis = Math.max(defaultStats.latencyMillis(), minResponseTimeOf(context.health().defaultHealth()));
+        return context.paymentAgeMillis() + (double) context.queueDepth() / Math.max(1, context.workers()) * latencyMillis;
+    }
+
+    private static boolean isUp(HealthStatus healthStatus) {
+        return healthStatus == null || !healthStatus.failing();
+    }
+
+    private static int minResponseTimeOf(HealthStatus healthStatus) {
+        return healthStatus == null ? 0 : healthStatus.minResponseTime();
+    }
+}
@@ -1,25 +1,94 @@
 package com.maal.apipaymentprocessorthreads.application;
 
 
-import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPersistenceMongo;
+import com.maal.apipaymentprocessorthreads.adapter.http.PeerPurgeClient;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentRollupStore;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Purge por geração. Primeiro todas as instâncias abrem o fence de purge (nova geração, batch writer esvaziado
+ * e gravações pausadas); depois as coleções são removidas e recriadas com os índices; por fim o commit descarta,
+ * em cada instância, a fila, os retries, o índice em memória e o cache de idempotência da geração anterior
+ * e fecha o fence. O purge só retorna quando nenhuma instância pode mais gravar pagamentos anteriores a ele.
+ * Se algum peer não confirmar o fence, o purge é abortado antes de remover as coleções: um peer sem fence
+ * poderia inserir entre o drop e a criação dos índices e recriar a coleção sem eles. Os peers que já tinham
+ * aberto o fence recebem um abort, que o fecha sem descartar nada.
+ */
 @Service
 public class PurgePaymentService {
 
     private final Logger logger = LoggerFactory.getLogger(PurgePaymentService.class);
 
-    private final PaymentPersistenceMongo paymentPersistence;
+    private final PaymentService paymentService;
+    private final PaymentStorage paymentStorage;
+    private final PaymentRollupStore paymentRollupStore;
+    private final PeerPurgeClient peerPurgeClient;
+    private final Duration fenceTimeout;
 
-    public PurgePaymentService(PaymentPersistenceMongo paymentPersistence) {
-        this.paymentPersistence = paymentPersistence;
+    public PurgePaymentService(PaymentService paymentService,
+                               PaymentStorage paymentStorage,
+                               PaymentRollupStore paymentRollupStore,
+                               PeerPurgeClient peerPurgeClient,
+                               @Value("${app.purge.fence-timeout-ms}") long fenceTimeoutMillis) {
+        this.paymentService = paymentService;
+        this.paymentStorage = paymentStorage;
+        this.paymentRollupStore = paymentRollupStore;
+        this.peerPurgeClient = peerPurgeClient;
+        this.fenceTimeout = Duration.ofMillis(fenceTimeoutMillis);
     }
 
     public void purgePayments() {
+        long start = System.currentTimeMillis();
         logger.info("Purging all payments from the database");
-        paymentPersistence.deleteAll();
-        logger.info("All payments have been purged successfully");
+        List<String> prepared = peerPurgeClient.prepare();
+        if (prepared.size() < peerPurgeClient.peers().size()) {
+            List<String> restored = peerPurgeClient.abort(prepared);
+            List<String> unrestored = prepared.stream().filter(peer -> !restored.contains(peer)).toList();
+            logger.warn("Purge aborted. Peers restored: {}, peers left to the fence timeout: {}", restored, unrestored);
+            throw new IllegalStateException("Purge aborted: not every peer acknowledged the purge fence. Peers restored: "
+                    + restored + ", peers left to the fence timeout: " + unrestored);
+        }
+        long generation = paymentService.beginPurge();
+        try {
+            paymentStorage.deleteAll();
+            paymentRollupStore.clear();
+        } finally {
+            paymentService.commitPurge(generation);
+            peerPurgeClient.commit();
+        }
+        logger.info("All payments have been purged successfully in {} ms (generation {})",
+                System.currentTimeMillis() - start, generation);
+    }
+
+    /**
+     * Fence pedido por outra instância que está coordenando o purge. Se nem o commit nem o abort chegarem em
+     * {@code fence-timeout-ms}, o purge é dado como concluído e o fence é fechado sozinho para que os workers
+     * não fiquem parados: gravar pagamentos anteriores depois de um drop seria pior do que perder o estado.
+     */
+    public void prepareLocalPurge() {
+        long generation = paymentService.beginPurge();
+        Thread.ofVirtual().name("purge-fence-timeout").start(() -> {
+            try {
+                Thread.sleep(fenceTimeout);
+                paymentService.commitPurge(generation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    public void commitLocalPurge() {
+        paymentService.commitPurge(paymentService.generation());
+    }
+
+    public void abortLocalPurge() {
+        paymentService.abortPurge(paymentService.generation());
     }
 }
@@ -12,6 +12,13 @@ public class HttpConfiguration {
 
     @Bean
     public HttpClient httpClient() {
+        return newHttpClient();
+    }
+
+    /**
+     * Mesma configuração para o client compartilhado e para os clients dedicados a cada processor.
+     */
+    static HttpClient newHttpClient() {
         return HttpClient.newBuilder()
                 .followRedirects(HttpClient.Redirect.NEVER)
                 .version(HttpClient.Version.HTTP_1_1)
@@ -1,7 +1,11 @@
 package com.maal.apipaymentprocessorthreads.config;
 
+import com.maal.apipaymentprocessorthreads.domain.document.CompactPaymentDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.HealthCheckLeaseDocument;
 import com.maal.apipaymentprocessorthreads.domain.document.PaymentDocument;
 import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentRollupDocument;
+import com.maal.apipaymentprocessorthreads.domain.document.ProcessorHealthDocument;
 import com.maal.apipaymentprocessorthreads.domain.model.Payment;
 import com.maal.apipaymentprocessorthreads.domain.model.PaymentsProcess;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentRequest;
@@ -9,6 +13,8 @@ import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@RegisterReflectionForBinding({PaymentDocument.class, PaymentProcessorType.class, PaymentRequest.class, Payment.class, PaymentsProcess.class})
+@RegisterReflectionForBinding({PaymentDocument.class, PaymentProcessorType.class, PaymentRequest.class, Payment.class, PaymentsProcess.class,
+        HealthCheckLeaseDocument.class, ProcessorHealthDocument.class, PaymentRollupDocument.class,
+        CompactPaymentDocument.class})
 public class NativeConfig {
 }
@@ -2,27 +2,87 @@ package com.maal.apipaymentprocessorthreads.config;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.apipaymentprocessorthreads.adapter.http.AdaptiveConcurrencyLimiter;
+import com.maal.apipaymentprocessorthreads.adapter.http.CircuitBreaker;
 import com.maal.apipaymentprocessorthreads.adapter.http.PaymentProcessorClient;
-import com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentProcessorManualClient;
+import com.maal.apipaymentprocessorthreads.adapter.http.ProcessorTransport;
+import com.maal.apipaymentprocessorthreads.adapter.http.ResilientPaymentProcessorClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import java.net.http.HttpClient;
+import java.time.Duration;
 
 
 @Configuration
 public class PaymentHttpClientConfiguration {
 
+    @Value("${app.payment-processor.request-timeout-ms}")
+    private long requestTimeoutMillis;
+
+    @Value("${app.payment-processor.circuit-breaker.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${app.payment-processor.circuit-breaker.open-duration-ms}")
+    private long openDurationMillis;
+
+    @Value("${app.payment-processor.limiter.initial-limit}")
+    private int initialLimit;
+
+    @Value("${app.payment-processor.limiter.min-limit}")
+    private int minLimit;
+
+    @Value("${app.payment-processor.limiter.max-limit}")
+    private int maxLimit;
+
+    @Value("${app.payment-processor.limiter.latency-threshold-ms}")
+    private long latencyThresholdMillis;
+
+    @Value("${app.payment-processor.transport.connections}")
+    private int connections;
+
+    @Value("${app.payment-processor.transport.acquire-timeout-ms}")
+    private long acquireTimeoutMillis;
+
+    @Value("${app.payment-processor.transport.warm-up}")
+    private boolean warmUp;
+
+    @Bean
+    public ProcessorTransport defaultProcessorTransport(@Value("${app.payment-processor.default.url}") String url) {
+        return transport("default", url);
+    }
+
+    @Bean
+    public ProcessorTransport fallbackProcessorTransport(@Value("${app.payment-processor.fallback.url}") String url) {
+        return transport("fallback", url);
+    }
+
     @Bean(name = "paymentProcessorDefaultHttpClient")
-    public PaymentProcessorManualClient defaultClient(@Value("${app.payment-processor.default.url}") String url,
-                                                      HttpClient httpClient) {
+    public ResilientPaymentProcessorClient defaultClient(ProcessorTransport defaultProcessorTransport,
+                                                         ObjectMapper objectMapper) {
 
-        return new PaymentProcessorClient(url, httpClient);
+        return resilientClient("default", defaultProcessorTransport, objectMapper);
     }
     @Bean("paymentProcessorFallbackHttpClient")
-    public PaymentProcessorManualClient fallbackClient(@Value("${app.payment-processor.fallback.url}") String url,
-                                                       HttpClient httpClient) {
+    public ResilientPaymentProcessorClient fallbackClient(ProcessorTransport fallbackProcessorTransport,
+                                                          ObjectMapper objectMapper) {
+
+        return resilientClient("fallback", fallbackProcessorTransport, objectMapper);
+    }
+
+    private ProcessorTransport transport(String name, String url) {
+        ProcessorTransport transport = new ProcessorTransport(name, url, HttpConfiguration.newHttpClient(),
+                connections, Duration.ofMillis(acquireTimeoutMillis));
+        if (warmUp) {
+            Thread.ofVirtual().name("processor-transport-warm-up-" + name).start(transport::warmUp);
+        }
+        return transport;
+    }
 
-        return new PaymentProcessorClient(url, httpClient);
+    private ResilientPaymentProcessorClient resilientClient(String name, ProcessorTransport transport, ObjectMapper objectMapper) {
+        return new ResilientPaymentProcessorClient(
+                name,
+                new PaymentProcessorClient(transport, objectMapper, Duration.ofMillis(requestTimeoutMillis)),
+                new CircuitBreaker(failureThreshold, openDurationMillis),
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMillis));
     }
 }
@@ -0,0 +1,26 @@
+package com.maal.apipaymentprocessorthreads.config;
+
+import com.maal.apipaymentprocessorthreads.application.PaymentService;
+import com.maal.apipaymentprocessorthreads.entrypoint.handler.PaymentIngestHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UndertowConfiguration {
+
+    /**
+     * Registra o {@link PaymentIngestHandler} antes da cadeia de servlets. O PaymentService é resolvido
+     * só na primeira requisição, pois o servidor web é criado antes dos demais beans.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.ingest.fast-path", havingValue = "true", matchIfMissing = true)
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> paymentIngestFastPath(
+            ObjectProvider<PaymentService> paymentService) {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo ->
+                deploymentInfo.addInitialHandlerChainWrapper(next -> new PaymentIngestHandler(next, paymentService::getObject)));
+    }
+}
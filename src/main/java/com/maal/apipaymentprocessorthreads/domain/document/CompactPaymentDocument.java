@@ -0,0 +1,79 @@
+package com.maal.apipaymentprocessorthreads.domain.document;
+
+import org.bson.types.Binary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Layout compacto de um pagamento: o correlationId é o próprio {@code _id} (UUID binário de 16 bytes),
+ * os campos têm nomes de uma letra, o valor é um int64 em centavos e o processor é o ordinal do enum.
+ * Um único índice {@code {p, t, a}} atende e cobre as consultas de resumo; a unicidade vem do {@code _id}.
+ */
+@Document("payments_compact")
+@CompoundIndexes({
+    @CompoundIndex(name = CompactPaymentDocument.SUMMARY_INDEX, def = "{'p': 1, 't': 1, 'a': 1}")
+})
+public class CompactPaymentDocument {
+
+    public static final String SUMMARY_INDEX = "summary_covering";
+
+    @Id
+    private Binary id;
+
+    @Field("t")
+    private Instant requestedAt;
+
+    @Field("a")
+    private long amountInCents;
+
+    @Field("p")
+    private int processor;
+
+    @Field("i")
+    private String processedBy;
+
+    public Binary getId() {
+        return id;
+    }
+
+    public void setId(Binary id) {
+        this.id = id;
+    }
+
+    public Instant getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(Instant requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public long getAmountInCents() {
+        return amountInCents;
+    }
+
+    public void setAmountInCents(long amountInCents) {
+        this.amountInCents = amountInCents;
+    }
+
+    public int getProcessor() {
+        return processor;
+    }
+
+    public void setProcessor(int processor) {
+        this.processor = processor;
+    }
+
+    public String getProcessedBy() {
+        return processedBy;
+    }
+
+    public void setProcessedBy(String processedBy) {
+        this.processedBy = processedBy;
+    }
+}
@@ -1,6 +1,7 @@
 package com.maal.apipaymentprocessorthreads.domain.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
@@ -13,11 +14,16 @@ import java.time.Instant;
 
 @Document("payments")
 @CompoundIndexes({
-    @CompoundIndex(name = "processor_requested", def = "{'processorType': 1, 'requestedAt': 1}"),
+    @CompoundIndex(name = PaymentDocument.SUMMARY_INDEX, def = "{'processorType': 1, 'requestedAt': 1, 'amount': 1}"),
     @CompoundIndex(name = "requested_processor", def = "{'requestedAt': 1, 'processorType': 1}")
 })
 public class PaymentDocument {
 
+    /**
+     * Índice de cobertura do resumo: atende processorType + intervalo de requestedAt e devolve o amount sem ler o documento.
+     */
+    public static final String SUMMARY_INDEX = "processor_requested_amount";
+
     @Id
     private String id;
 
@@ -33,6 +39,11 @@ public class PaymentDocument {
     @Indexed(background = true)
     private PaymentProcessorType processorType;
 
+    private String processedBy;
+
+    @Transient
+    private long walPosition = -1;
+
     public String getCorrelationId() {
         return correlationId;
     }
@@ -65,6 +76,21 @@ public class PaymentDocument {
         this.processorType = processorType;
     }
 
+    public String getProcessedBy() {
+        return processedBy;
+    }
+
+    public void setProcessedBy(String processedBy) {
+        this.processedBy = processedBy;
+    }
+
+    public long getWalPosition() {
+        return walPosition;
+    }
+
+    public void setWalPosition(long walPosition) {
+        this.walPosition = walPosition;
+    }
 
     public String getId() {
         return id;
@@ -0,0 +1,81 @@
+package com.maal.apipaymentprocessorthreads.domain.document;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * Totais pré-agregados de um segundo (epoch second) para um processor, mantidos com upserts {@code $inc}.
+ * {@code batches} guarda os ids dos lotes já somados, para que repetir um upsert não conte o lote de novo.
+ */
+@Document("payments_rollup")
+@CompoundIndexes({
+    @CompoundIndex(name = "processor_second", def = "{'processorType': 1, 'second': 1}", unique = true)
+})
+public class PaymentRollupDocument {
+
+    @Id
+    private String id;
+
+    private long second;
+
+    private PaymentProcessorType processorType;
+
+    private long count;
+
+    private long amountInCents;
+
+    private List<ObjectId> batches;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getSecond() {
+        return second;
+    }
+
+    public void setSecond(long second) {
+        this.second = second;
+    }
+
+    public PaymentProcessorType getProcessorType() {
+        return processorType;
+    }
+
+    public void setProcessorType(PaymentProcessorType processorType) {
+        this.processorType = processorType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getAmountInCents() {
+        return amountInCents;
+    }
+
+    public void setAmountInCents(long amountInCents) {
+        this.amountInCents = amountInCents;
+    }
+
+    public List<ObjectId> getBatches() {
+        return batches;
+    }
+
+    public void setBatches(List<ObjectId> batches) {
+        this.batches = batches;
+    }
+}
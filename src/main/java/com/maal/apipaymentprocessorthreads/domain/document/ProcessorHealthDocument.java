@@ -0,0 +1,69 @@
+package com.maal.apipaymentprocessorthreads.domain.document;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document("processor_health")
+public class ProcessorHealthDocument {
+
+    @Id
+    private String id;
+
+    private Boolean defaultFailing;
+
+    private Integer defaultMinResponseTime;
+
+    private Boolean fallbackFailing;
+
+    private Integer fallbackMinResponseTime;
+
+    private long updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Boolean getDefaultFailing() {
+        return defaultFailing;
+    }
+
+    public void setDefaultFailing(Boolean defaultFailing) {
+        this.defaultFailing = defaultFailing;
+    }
+
+    public Integer getDefaultMinResponseTime() {
+        return defaultMinResponseTime;
+    }
+
+    public void setDefaultMinResponseTime(Integer defaultMinResponseTime) {
+        this.defaultMinResponseTime = defaultMinResponseTime;
+    }
+
+    public Boolean getFallbackFailing() {
+        return fallbackFailing;
+    }
+
+    public void setFallbackFailing(Boolean fallbackFailing) {
+        this.fallbackFailing = fallbackFailing;
+    }
+
+    public Integer getFallbackMinResponseTime() {
+        return fallbackMinResponseTime;
+    }
+
+    public void setFallbackMinResponseTime(Integer fallbackMinResponseTime) {
+        this.fallbackMinResponseTime = fallbackMinResponseTime;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
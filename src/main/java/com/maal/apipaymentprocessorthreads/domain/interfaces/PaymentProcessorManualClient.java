@@ -1,5 +1,12 @@
 package com.maal.apipaymentprocessorthreads.domain.interfaces;
 
+import com.maal.apipaymentprocessorthreads.domain.model.PaymentPayload;
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+
+import java.util.Optional;
+
 public interface PaymentProcessorManualClient {
-    boolean processPayment(String requestBody);
+    boolean processPayment(PaymentPayload payload);
+
+    Optional<HealthStatus> serviceHealth();
 }
@@ -0,0 +1,20 @@
+package com.maal.apipaymentprocessorthreads.domain.interfaces;
+
+import com.maal.apipaymentprocessorthreads.domain.model.ProcessorRoute;
+import com.maal.apipaymentprocessorthreads.domain.model.RoutingContext;
+
+/**
+ * Política de roteamento entre os processors, escolhida por {@code app.payment-routing.strategy}.
+ */
+public interface PaymentRoutingStrategy {
+
+    /**
+     * Destino da próxima tentativa: DEFAULT, FALLBACK ou HOLD para adiar o pagamento.
+     */
+    ProcessorRoute route(RoutingContext context);
+
+    /**
+     * Se, depois de uma falha no default, o pagamento deve ir ao fallback na mesma tentativa em vez de ser reagendado.
+     */
+    boolean failoverToFallback(RoutingContext context);
+}
@@ -0,0 +1,28 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversões exatas entre valores monetários em BigDecimal (fronteira JSON/MongoDB)
+ * e centavos em long, usados internamente no caminho quente.
+ */
+public final class Amounts {
+
+    private Amounts() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("amount is required");
+        }
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("amount must have at most two decimal places and fit in a long: " + amount);
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
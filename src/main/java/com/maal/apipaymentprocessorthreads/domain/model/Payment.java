@@ -1,11 +1,19 @@
 package com.maal.apipaymentprocessorthreads.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
-public record Payment(UUID correlationId, BigDecimal amount, Instant requestedAt) {
-    public Payment(UUID correlationId, BigDecimal amount) {
-        this(correlationId, amount, Instant.now());
+public record Payment(UUID correlationId, @JsonIgnore long amountInCents, Instant requestedAt) {
+    public Payment(UUID correlationId, long amountInCents) {
+        this(correlationId, amountInCents, Instant.ofEpochMilli(System.currentTimeMillis()));
+    }
+
+    @JsonProperty("amount")
+    public BigDecimal amount() {
+        return Amounts.toBigDecimal(amountInCents);
     }
 }
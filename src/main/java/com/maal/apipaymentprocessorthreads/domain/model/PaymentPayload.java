@@ -0,0 +1,25 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+/**
+ * Corpo JSON já serializado enviado ao processor. O buffer tem tamanho fixo e é reutilizado
+ * entre pagamentos; apenas os primeiros {@code length} bytes são válidos.
+ */
+public final class PaymentPayload {
+
+    public static final int MAX_SIZE = 160;
+
+    private final byte[] buffer = new byte[MAX_SIZE];
+    private int length;
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+}
@@ -0,0 +1,35 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+import java.nio.ByteBuffer;
+
+public record PaymentTotals(long defaultRequests, long defaultAmountInCents,
+                            long fallbackRequests, long fallbackAmountInCents) {
+
+    public static final PaymentTotals EMPTY = new PaymentTotals(0, 0, 0, 0);
+    public static final int BINARY_SIZE = 4 * Long.BYTES;
+
+    public PaymentTotals plus(PaymentTotals other) {
+        return new PaymentTotals(
+                defaultRequests + other.defaultRequests,
+                defaultAmountInCents + other.defaultAmountInCents,
+                fallbackRequests + other.fallbackRequests,
+                fallbackAmountInCents + other.fallbackAmountInCents);
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BINARY_SIZE)
+                .putLong(defaultRequests)
+                .putLong(defaultAmountInCents)
+                .putLong(fallbackRequests)
+                .putLong(fallbackAmountInCents)
+                .array();
+    }
+
+    public static PaymentTotals fromBytes(byte[] bytes) {
+        if (bytes.length != BINARY_SIZE) {
+            throw new IllegalArgumentException("Invalid payment totals payload size: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new PaymentTotals(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+}
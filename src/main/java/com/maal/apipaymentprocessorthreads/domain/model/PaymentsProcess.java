@@ -2,24 +2,27 @@ package com.maal.apipaymentprocessorthreads.domain.model;
 
 import java.util.Objects;
 
-public class PaymentsProcess implements Comparable<PaymentsProcess> {
+public class PaymentsProcess {
 
-    private final String paymentInJson;
+    private final PaymentPayload payload;
     private final Payment payment;
     private int retryCount;
+    private long enqueuedAtNanos;
+    private long walPosition = -1;
+    private long generation;
 
-    public PaymentsProcess(String paymentInJson, Payment payment) {
-        this(paymentInJson, payment, 0);
+    public PaymentsProcess(PaymentPayload payload, Payment payment) {
+        this(payload, payment, 0);
     }
 
-    public PaymentsProcess(String paymentInJson, Payment payment, int retryCount) {
-        this.paymentInJson = paymentInJson;
+    public PaymentsProcess(PaymentPayload payload, Payment payment, int retryCount) {
+        this.payload = payload;
         this.payment = payment;
         this.retryCount = retryCount;
     }
 
-    public String paymentInJson() {
-        return paymentInJson;
+    public PaymentPayload payload() {
+        return payload;
     }
 
     public Payment payment() {
@@ -34,9 +37,31 @@ public class PaymentsProcess implements Comparable<PaymentsProcess> {
         this.retryCount++;
     }
 
-    @Override
-    public int compareTo(PaymentsProcess other) {
-        return Integer.compare(this.retryCount, other.retryCount);
+    public long enqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    public void markEnqueued(long nanos) {
+        this.enqueuedAtNanos = nanos;
+    }
+
+    public long walPosition() {
+        return walPosition;
+    }
+
+    public void setWalPosition(long walPosition) {
+        this.walPosition = walPosition;
+    }
+
+    /**
+     * Geração de purge em que o pagamento foi aceito; pagamentos de gerações anteriores são descartados.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
     }
 
     @Override
@@ -45,12 +70,12 @@ public class PaymentsProcess implements Comparable<PaymentsProcess> {
         if (o == null || getClass() != o.getClass()) return false;
         PaymentsProcess that = (PaymentsProcess) o;
         return retryCount == that.retryCount &&
-                Objects.equals(paymentInJson, that.paymentInJson) &&
+                Objects.equals(payload, that.payload) &&
                 Objects.equals(payment, that.payment);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(paymentInJson, payment, retryCount);
+        return Objects.hash(payload, payment, retryCount);
     }
 }
@@ -0,0 +1,12 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+import com.maal.apipaymentprocessorthreads.entrypoint.dto.HealthStatus;
+
+public record ProcessorHealthSnapshot(HealthStatus defaultHealth, HealthStatus fallbackHealth, long updatedAtMillis) {
+
+    public static final ProcessorHealthSnapshot UNKNOWN = new ProcessorHealthSnapshot(null, null, 0L);
+
+    public boolean isStale(long nowMillis, long maxAgeMillis) {
+        return nowMillis - updatedAtMillis > maxAgeMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+public enum ProcessorRoute {
+        DEFAULT,
+        FALLBACK,
+        HOLD
+}
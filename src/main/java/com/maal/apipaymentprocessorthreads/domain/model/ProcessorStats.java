@@ -0,0 +1,13 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+/**
+ * Médias móveis exponenciais (EWMA) da latência e da taxa de sucesso observadas nas chamadas a um processor.
+ */
+public record ProcessorStats(double latencyMillis, double successRate, long updatedAtMillis) {
+
+    public static final ProcessorStats UNKNOWN = new ProcessorStats(0, 1, 0L);
+
+    public boolean isStale(long nowMillis, long maxAgeMillis) {
+        return nowMillis - updatedAtMillis > maxAgeMillis;
+    }
+}
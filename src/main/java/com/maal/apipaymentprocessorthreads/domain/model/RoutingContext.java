@@ -0,0 +1,18 @@
+package com.maal.apipaymentprocessorthreads.domain.model;
+
+/**
+ * Tudo o que uma {@link com.maal.apipaymentprocessorthreads.domain.interfaces.PaymentRoutingStrategy}
+ * pode usar para decidir o destino de um pagamento.
+ *
+ * @param health           último health-check dos processors, ou {@link ProcessorHealthSnapshot#UNKNOWN} se estiver velho
+ * @param queueDepth       pagamentos aguardando na fila
+ * @param workers          workers consumindo a fila
+ * @param paymentAgeMillis tempo desde que o pagamento foi aceito
+ */
+public record RoutingContext(ProcessorHealthSnapshot health,
+                             ProcessorStats defaultStats,
+                             ProcessorStats fallbackStats,
+                             int queueDepth,
+                             int workers,
+                             long paymentAgeMillis) {
+}
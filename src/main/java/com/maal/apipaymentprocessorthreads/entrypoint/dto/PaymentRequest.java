@@ -5,7 +5,7 @@ import java.util.UUID;
 public record PaymentRequest(UUID correlationId, BigDecimal amount) {
     public PaymentRequest {
         if (correlationId == null) {
-            correlationId = UUID.randomUUID();
+            throw new IllegalArgumentException("correlationId is required");
         }
     }
 }
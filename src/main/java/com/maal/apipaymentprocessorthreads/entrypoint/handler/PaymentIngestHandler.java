@@ -0,0 +1,124 @@
+package com.maal.apipaymentprocessorthreads.entrypoint.handler;
+
+import com.maal.apipaymentprocessorthreads.application.PaymentService;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.Connectors;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.ImmediatePooledByteBuffer;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caminho rápido de POST /payments executado antes do dispatch do Spring MVC, na própria thread de IO do Undertow.
+ * O corpo é lido sem bloquear, interpretado por {@link PaymentRequestParser} e enfileirado direto no
+ * {@link PaymentService}; com a política de overflow BLOCK o enfileiramento é despachado para uma worker thread,
+ * para não estacionar a thread de IO. Pagamento sem correlationId é recusado com 400.
+ * Só corpos {@code application/json} em UTF-8 no formato canônico são tratados aqui: os demais (outro Content-Type,
+ * valor como string, expoente, JSON inválido...) seguem com o corpo já lido para o Spring MVC, que responde como
+ * sempre respondeu (415, 400 do Jackson ou o pagamento aceito). As demais requisições seguem para o próximo handler.
+ */
+public class PaymentIngestHandler implements HttpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIngestHandler.class);
+    private static final String PAYMENTS_PATH = "/payments";
+
+    private final HttpHandler next;
+    private final Supplier<PaymentService> paymentServiceSupplier;
+    private final ThreadLocal<PaymentRequestParser> parsers = ThreadLocal.withInitial(PaymentRequestParser::new);
+    private volatile PaymentService paymentService;
+
+    public PaymentIngestHandler(HttpHandler next, Supplier<PaymentService> paymentServiceSupplier) {
+        this.next = next;
+        this.paymentServiceSupplier = paymentServiceSupplier;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!Methods.POST.equals(exchange.getRequestMethod()) || !PAYMENTS_PATH.equals(exchange.getRequestPath())
+                || !isJson(exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE))) {
+            next.handleRequest(exchange);
+            return;
+        }
+        exchange.getRequestReceiver().receiveFullBytes(this::ingest,
+                (failedExchange, e) -> {
+                    logger.warn("Could not read payment request body: {}", e.getMessage());
+                    respond(failedExchange, StatusCodes.BAD_REQUEST);
+                });
+    }
+
+    private void ingest(HttpServerExchange exchange, byte[] body) {
+        PaymentRequestParser parser = parsers.get();
+        if (!parser.parse(body, body.length)) {
+            fallback(exchange, body);
+            return;
+        }
+        if (!parser.hasCorrelationId()) {
+            respond(exchange, StatusCodes.BAD_REQUEST);
+            return;
+        }
+
+        UUID correlationId = new UUID(parser.mostSignificantBits(), parser.leastSignificantBits());
+        long amountInCents = parser.amountInCents();
+        if (exchange.isInIoThread() && paymentService().mayBlockOnIngest()) {
+            exchange.dispatch(() -> enqueue(exchange, correlationId, amountInCents));
+            return;
+        }
+        enqueue(exchange, correlationId, amountInCents);
+    }
+
+    private void enqueue(HttpServerExchange exchange, UUID correlationId, long amountInCents) {
+        try {
+            boolean accepted = paymentService().paymentRequest(correlationId, amountInCents);
+            respond(exchange, accepted ? StatusCodes.OK : StatusCodes.SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            logger.error("Error enqueuing payment {}: {}", correlationId, e.getMessage(), e);
+            respond(exchange, StatusCodes.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Devolve o corpo já lido ao canal da requisição e a entrega ao próximo handler, como o RequestBufferingHandler
+     * do Undertow faz.
+     */
+    private void fallback(HttpServerExchange exchange, byte[] body) {
+        Connectors.ungetRequestBytes(exchange, new ImmediatePooledByteBuffer(ByteBuffer.wrap(body)));
+        Connectors.resetRequestChannel(exchange);
+        Connectors.executeRootHandler(next, exchange);
+    }
+
+    /**
+     * {@code application/json}, sem parâmetros ou com charset UTF-8: o mesmo que o {@code consumes} do controller
+     * aceita e sem conversão de charset.
+     */
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT).replace(" ", "");
+        return normalized.equals("application/json")
+                || normalized.equals("application/json;charset=utf-8")
+                || normalized.equals("application/json;charset=\"utf-8\"");
+    }
+
+    private PaymentService paymentService() {
+        PaymentService service = paymentService;
+        if (service == null) {
+            service = paymentServiceSupplier.get();
+            paymentService = service;
+        }
+        return service;
+    }
+
+    private static void respond(HttpServerExchange exchange, int statusCode) {
+        exchange.setStatusCode(statusCode);
+        exchange.endExchange();
+    }
+}
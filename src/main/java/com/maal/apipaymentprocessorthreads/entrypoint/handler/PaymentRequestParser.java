@@ -0,0 +1,398 @@
+package com.maal.apipaymentprocessorthreads.entrypoint.handler;
+
+/**
+ * Parser de streaming para o corpo de POST /payments. Lê {@code correlationId} e {@code amount}
+ * direto dos bytes da requisição, sem Strings nem BigDecimal: o UUID vai para dois longs e o valor
+ * para centavos. Campos desconhecidos são ignorados, como no ObjectMapper da aplicação, mas precisam ser JSON válido.
+ * Só aceita o formato canônico; o que ele recusa (valor como string, expoente, mais de duas casas, zeros à esquerda,
+ * escapes nas chaves, JSON inválido...) é repassado pelo handler ao Spring MVC, para que o Jackson dê a resposta
+ * de sempre. Por isso tudo o que ele aceita precisa ser aceito pelo Jackson com o mesmo resultado.
+ * Não é thread-safe; o handler mantém uma instância por thread de IO.
+ */
+public final class PaymentRequestParser {
+
+    private static final byte[] CORRELATION_ID = {'c', 'o', 'r', 'r', 'e', 'l', 'a', 't', 'i', 'o', 'n', 'I', 'd'};
+    private static final byte[] AMOUNT = {'a', 'm', 'o', 'u', 'n', 't'};
+    private static final int UUID_LENGTH = 36;
+    private static final int MAX_DEPTH = 64;
+
+    private byte[] body;
+    private int position;
+    private int limit;
+
+    private boolean hasCorrelationId;
+    private long mostSignificantBits;
+    private long leastSignificantBits;
+    private boolean hasAmount;
+    private long amountInCents;
+
+    /**
+     * Retorna false quando o corpo não está no formato canônico ou quando o valor não pode ser representado em centavos.
+     */
+    public boolean parse(byte[] body, int length) {
+        this.body = body;
+        this.position = 0;
+        this.limit = length;
+        this.hasCorrelationId = false;
+        this.hasAmount = false;
+        try {
+            return parseObject() && hasAmount;
+        } catch (ArithmeticException e) {
+            return false;
+        } finally {
+            this.body = null;
+        }
+    }
+
+    public boolean hasCorrelationId() {
+        return hasCorrelationId;
+    }
+
+    public long mostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    public long leastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    public long amountInCents() {
+        return amountInCents;
+    }
+
+    private boolean parseObject() {
+        if (next() != '{') {
+            return false;
+        }
+        if (peek() == '}') {
+            position++;
+            return true;
+        }
+        while (true) {
+            if (next() != '"') {
+                return false;
+            }
+            int keyStart = position;
+            if (!skipStringBody()) {
+                return false;
+            }
+            int keyEnd = position - 1;
+            if (hasEscape(keyStart, keyEnd)) {
+                return false;
+            }
+            if (next() != ':') {
+                return false;
+            }
+
+            boolean valid;
+            if (keyEquals(keyStart, keyEnd, CORRELATION_ID)) {
+                valid = parseCorrelationId();
+            } else if (keyEquals(keyStart, keyEnd, AMOUNT)) {
+                valid = parseAmount();
+            } else {
+                valid = skipValue(0);
+            }
+            if (!valid) {
+                return false;
+            }
+
+            byte separator = next();
+            if (separator == '}') {
+                return true;
+            }
+            if (separator != ',') {
+                return false;
+            }
+        }
+    }
+
+    private boolean parseCorrelationId() {
+        byte first = next();
+        if (first == 'n') {
+            hasCorrelationId = false;
+            return skipLiteral("ull");
+        }
+        if (first != '"' || position + UUID_LENGTH >= limit || body[position + UUID_LENGTH] != '"') {
+            return false;
+        }
+        long most = 0;
+        long least = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            byte c = body[position + i];
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+                continue;
+            }
+            int digit = hexValue(c);
+            if (digit < 0) {
+                return false;
+            }
+            if (i < 19) {
+                most = (most << 4) | digit;
+            } else {
+                least = (least << 4) | digit;
+            }
+        }
+        position += UUID_LENGTH + 1;
+        mostSignificantBits = most;
+        leastSignificantBits = least;
+        hasCorrelationId = true;
+        return true;
+    }
+
+    /**
+     * Aceita a mesma faixa que {@code Amounts.toCents}: até duas casas decimais significativas.
+     * Notação exponencial e valor como string ficam para o Jackson; zeros à esquerda são recusados, como no Jackson.
+     */
+    private boolean parseAmount() {
+        if (peek() == 'n') {
+            position++;
+            hasAmount = false;
+            return skipLiteral("ull");
+        }
+        int i = position;
+        boolean negative = i < limit && body[i] == '-';
+        if (negative) {
+            i++;
+        }
+        int unitsStart = i;
+        if (i + 1 < limit && body[i] == '0' && isDigit(body[i + 1])) {
+            return false;
+        }
+        long units = 0;
+        while (i < limit && isDigit(body[i])) {
+            units = Math.addExact(Math.multiplyExact(units, 10), body[i++] - '0');
+        }
+        if (i == unitsStart) {
+            return false;
+        }
+        long fraction = 0;
+        if (i < limit && body[i] == '.') {
+            int fractionStart = ++i;
+            while (i < limit && isDigit(body[i])) {
+                int digits = i - fractionStart;
+                if (digits < 2) {
+                    fraction = fraction * 10 + (body[i] - '0');
+                } else if (body[i] != '0') {
+                    return false;
+                }
+                i++;
+            }
+            if (i == fractionStart) {
+                return false;
+            }
+            if (i - fractionStart == 1) {
+                fraction *= 10;
+            }
+        }
+        if (i < limit && (body[i] == 'e' || body[i] == 'E')) {
+            return false;
+        }
+        position = i;
+        long cents = Math.addExact(Math.multiplyExact(units, 100), fraction);
+        amountInCents = negative ? -cents : cents;
+        hasAmount = true;
+        return true;
+    }
+
+    /**
+     * Valida e pula um valor de um campo desconhecido com a gramática estrita do JSON.
+     */
+    private boolean skipValue(int depth) {
+        byte c = next();
+        switch (c) {
+            case '"':
+                return skipStringBody();
+            case '{':
+                return depth < MAX_DEPTH && skipObject(depth + 1);
+            case '[':
+                return depth < MAX_DEPTH && skipArray(depth + 1);
+            case 't':
+                return skipLiteral("rue");
+            case 'f':
+                return skipLiteral("alse");
+            case 'n':
+                return skipLiteral("ull");
+            default:
+                position--;
+                return skipNumber();
+        }
+    }
+
+    private boolean skipObject(int depth) {
+        if (peek() == '}') {
+            position++;
+            return true;
+        }
+        while (true) {
+            if (next() != '"' || !skipStringBody() || next() != ':' || !skipValue(depth)) {
+                return false;
+            }
+            byte separator = next();
+            if (separator == '}') {
+                return true;
+            }
+            if (separator != ',') {
+                return false;
+            }
+        }
+    }
+
+    private boolean skipArray(int depth) {
+        if (peek() == ']') {
+            position++;
+            return true;
+        }
+        while (true) {
+            if (!skipValue(depth)) {
+                return false;
+            }
+            byte separator = next();
+            if (separator == ']') {
+                return true;
+            }
+            if (separator != ',') {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * {@code -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?}
+     */
+    private boolean skipNumber() {
+        if (position < limit && body[position] == '-') {
+            position++;
+        }
+        if (position >= limit || !isDigit(body[position])) {
+            return false;
+        }
+        if (body[position++] != '0') {
+            skipDigits();
+        } else if (position < limit && isDigit(body[position])) {
+            return false;
+        }
+        if (position < limit && body[position] == '.') {
+            position++;
+            if (skipDigits() == 0) {
+                return false;
+            }
+        }
+        if (position < limit && (body[position] == 'e' || body[position] == 'E')) {
+            position++;
+            if (position < limit && (body[position] == '+' || body[position] == '-')) {
+                position++;
+            }
+            return skipDigits() > 0;
+        }
+        return true;
+    }
+
+    private int skipDigits() {
+        int start = position;
+        while (position < limit && isDigit(body[position])) {
+            position++;
+        }
+        return position - start;
+    }
+
+    /**
+     * Caracteres de controle sem escape e escapes inválidos são recusados, como no Jackson.
+     */
+    private boolean skipStringBody() {
+        while (position < limit) {
+            byte c = body[position++];
+            if (c == '"') {
+                return true;
+            }
+            if (c >= 0 && c < ' ') {
+                return false;
+            }
+            if (c == '\\') {
+                if (position >= limit) {
+                    return false;
+                }
+                byte escaped = body[position++];
+                if (escaped == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (position >= limit || hexValue(body[position++]) < 0) {
+                            return false;
+                        }
+                    }
+                } else if ("\"\\/bfnrt".indexOf(escaped) < 0) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasEscape(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (body[i] == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean skipLiteral(String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            if (position >= limit || body[position++] != rest.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean keyEquals(int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (body[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte next() {
+        skipWhitespace();
+        return position < limit ? body[position++] : 0;
+    }
+
+    private byte peek() {
+        skipWhitespace();
+        return position < limit ? body[position] : 0;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit) {
+            byte c = body[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int hexValue(byte c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
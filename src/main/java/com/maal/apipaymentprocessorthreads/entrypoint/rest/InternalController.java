@@ -0,0 +1,67 @@
+package com.maal.apipaymentprocessorthreads.entrypoint.rest;
+
+import com.maal.apipaymentprocessorthreads.adapter.http.PaymentHandoffCodec;
+import com.maal.apipaymentprocessorthreads.application.PaymentService;
+import com.maal.apipaymentprocessorthreads.application.PaymentSummaryService;
+import com.maal.apipaymentprocessorthreads.application.PurgePaymentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Endpoints usados apenas entre as instâncias da API; não são expostos pelo nginx como parte do contrato.
+ */
+@RestController
+@RequestMapping("/internal")
+public class InternalController {
+
+    private final PaymentSummaryService paymentSummaryService;
+    private final PurgePaymentService purgePaymentService;
+    private final PaymentService paymentService;
+
+    public InternalController(PaymentSummaryService paymentSummaryService,
+                              PurgePaymentService purgePaymentService,
+                              PaymentService paymentService) {
+        this.paymentSummaryService = paymentSummaryService;
+        this.purgePaymentService = purgePaymentService;
+        this.paymentService = paymentService;
+    }
+
+    @GetMapping(value = "/payments-summary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getLocalPaymentSummary(
+            @RequestParam Instant from,
+            @RequestParam Instant to) {
+        return paymentSummaryService.localTotals(from, to)
+                .map(totals -> ResponseEntity.ok(totals.toBytes()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    @PostMapping(value = "/payments/handoff", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> acceptHandoff(@RequestBody byte[] body) {
+        if (!paymentService.acceptHandoff(PaymentHandoffCodec.fromBytes(body))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/purge/prepare")
+    public ResponseEntity<Void> preparePurge() {
+        purgePaymentService.prepareLocalPurge();
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/purge/commit")
+    public ResponseEntity<Void> commitPurge() {
+        purgePaymentService.commitLocalPurge();
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/purge/abort")
+    public ResponseEntity<Void> abortPurge() {
+        purgePaymentService.abortLocalPurge();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.maal.apipaymentprocessorthreads.entrypoint.rest;
+
+import com.maal.apipaymentprocessorthreads.adapter.http.ProcessorTransport;
+import com.maal.apipaymentprocessorthreads.adapter.http.ResilientPaymentProcessorClient;
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PipelineMetrics;
+import com.maal.apipaymentprocessorthreads.adapter.metrics.PrometheusWriter;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentBatchWriter;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentIdempotencyCache;
+import com.maal.apipaymentprocessorthreads.adapter.persistence.PaymentPriorityBlockingQueue;
+import com.maal.apipaymentprocessorthreads.application.AdaptiveWorkerPool;
+import com.maal.apipaymentprocessorthreads.application.PaymentHedger;
+import com.maal.apipaymentprocessorthreads.application.PaymentRetryScheduler;
+import com.maal.apipaymentprocessorthreads.application.ProcessorStatsTracker;
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Endpoint de scrape no formato do Prometheus: métricas do pipeline e o estado atual
+ * de fila, retries, writer, clients e transportes de cada processor.
+ */
+@RestController
+public class MetricsController {
+
+    private final PipelineMetrics pipelineMetrics;
+    private final PaymentPriorityBlockingQueue paymentsQueue;
+    private final PaymentRetryScheduler retryScheduler;
+    private final PaymentBatchWriter paymentBatchWriter;
+    private final List<ResilientPaymentProcessorClient> processorClients;
+    private final List<ProcessorTransport> processorTransports;
+    private final ProcessorStatsTracker processorStatsTracker;
+    private final AdaptiveWorkerPool workerPool;
+    private final PaymentIdempotencyCache idempotencyCache;
+    private final PaymentHedger paymentHedger;
+
+    public MetricsController(PipelineMetrics pipelineMetrics,
+                             PaymentPriorityBlockingQueue paymentsQueue,
+                             PaymentRetryScheduler retryScheduler,
+                             PaymentBatchWriter paymentBatchWriter,
+                             List<ResilientPaymentProcessorClient> processorClients,
+                             List<ProcessorTransport> processorTransports,
+                             ProcessorStatsTracker processorStatsTracker,
+                             AdaptiveWorkerPool workerPool,
+                             PaymentIdempotencyCache idempotencyCache,
+                             PaymentHedger paymentHedger) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.paymentsQueue = paymentsQueue;
+        this.retryScheduler = retryScheduler;
+        this.paymentBatchWriter = paymentBatchWriter;
+        this.processorClients = processorClients;
+        this.processorTransports = processorTransports;
+        this.processorStatsTracker = processorStatsTracker;
+        this.workerPool = workerPool;
+        this.idempotencyCache = idempotencyCache;
+        this.paymentHedger = paymentHedger;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        PrometheusWriter writer = new PrometheusWriter();
+        pipelineMetrics.writeTo(writer);
+        writer.gauge("payment_queue_size", paymentsQueue.size())
+                .gauge("payment_retry_pending", retryScheduler.pending())
+                .gauge("payment_writer_pending", paymentBatchWriter.pending())
+                .gauges("payment_workers", null, workerPool.metrics())
+                .gauges("payment_idempotency", null, idempotencyCache.metrics())
+                .gauges("payment_hedge", null, paymentHedger.metrics());
+        Map<String, Map<String, Object>> clientMetrics = new LinkedHashMap<>();
+        for (ResilientPaymentProcessorClient processorClient : processorClients) {
+            clientMetrics.put(processorLabel(processorClient.name()), processorClient.metrics());
+        }
+        Map<String, Map<String, Object>> transportMetrics = new LinkedHashMap<>();
+        for (ProcessorTransport processorTransport : processorTransports) {
+            transportMetrics.put(processorLabel(processorTransport.name()), processorTransport.metrics());
+        }
+        Map<String, Map<String, Object>> processorMetrics = new LinkedHashMap<>();
+        for (PaymentProcessorType type : PaymentProcessorType.values()) {
+            processorMetrics.put(processorLabel(type.name().toLowerCase(Locale.ROOT)), processorStatsTracker.metrics(type));
+        }
+        writer.gauges("payment_processor_client", clientMetrics)
+                .gauges("payment_processor_transport", transportMetrics)
+                .gauges("payment_processor", processorMetrics);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, PrometheusWriter.CONTENT_TYPE)
+                .body(writer.toString());
+    }
+
+    private static String processorLabel(String processor) {
+        return "processor=\"" + processor + "\"";
+    }
+}
@@ -1,19 +1,17 @@
 package com.maal.apipaymentprocessorthreads.entrypoint.rest;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.maal.apipaymentprocessorthreads.application.PaymentService;
 import com.maal.apipaymentprocessorthreads.application.PaymentSummaryService;
 import com.maal.apipaymentprocessorthreads.application.PurgePaymentService;
 import com.maal.apipaymentprocessorthreads.domain.model.Payment;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentRequest;
 import com.maal.apipaymentprocessorthreads.entrypoint.dto.PaymentSummaryGetResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 
 @RestController
 @RequestMapping
@@ -32,8 +30,10 @@ public class PaymentController {
     }
 
     @PostMapping(value = "/payments", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Void> receivePayment(@RequestBody PaymentRequest request) throws JsonProcessingException {
-        paymentService.paymentRequest(request);
+    public ResponseEntity<Void> receivePayment(@RequestBody PaymentRequest request) {
+        if (!paymentService.paymentRequest(request)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -51,10 +51,4 @@ public class PaymentController {
         purgePaymentService.purgePayments();
         return ResponseEntity.ok().build();
     }
-
-    @GetMapping(value = "/health", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> getHealth() {
-        Map<String, Object> healthStatus = new HashMap<>();
-        return ResponseEntity.ok(healthStatus);
-    }
 }
\ No newline at end of file
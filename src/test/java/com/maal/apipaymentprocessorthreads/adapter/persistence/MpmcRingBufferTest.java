@@ -0,0 +1,127 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new MpmcRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new MpmcRingBuffer<Integer>(8).capacity());
+        assertEquals(4, new MpmcRingBuffer<Integer>(1).capacity());
+    }
+
+    @Test
+    void rejectsOfferWhenFullAndReturnsNullWhenEmpty() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        assertNull(buffer.poll());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void keepsFifoOrderAcrossWrapAround() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 1_000; round++) {
+            int batch = 1 + round % 4;
+            for (int i = 0; i < batch; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            for (int i = 0; i < batch; i++) {
+                assertEquals(expected++, buffer.poll());
+            }
+        }
+        assertNull(buffer.poll());
+        assertEquals(next, buffer.enqueued());
+        assertEquals(next, buffer.dequeued());
+    }
+
+    @Test
+    void deliversEveryElementExactlyOnceUnderContention() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        int total = producers * perProducer;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(16);
+        ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicLong fullOffers = new AtomicLong();
+        AtomicLong emptyPolls = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            Future<?>[] tasks = new Future<?>[producers + consumers];
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                tasks[p] = executor.submit(() -> {
+                    start.await();
+                    for (int value = first; value < first + perProducer; value++) {
+                        while (!buffer.offer(value)) {
+                            fullOffers.incrementAndGet();
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks[producers + c] = executor.submit(() -> {
+                    start.await();
+                    while (consumed.get() < total) {
+                        Integer value = buffer.poll();
+                        if (value == null) {
+                            emptyPolls.incrementAndGet();
+                            Thread.yield();
+                            continue;
+                        }
+                        if (seen.put(value, Boolean.TRUE) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                        consumed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(total, seen.size());
+        assertNull(buffer.poll());
+        assertEquals(total, buffer.enqueued());
+        assertEquals(total, buffer.dequeued());
+        assertTrue(fullOffers.get() + emptyPolls.get() > 0, "a 16-slot buffer should hit full or empty under contention");
+    }
+}
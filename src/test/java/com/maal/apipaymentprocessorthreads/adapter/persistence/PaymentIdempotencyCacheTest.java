@@ -0,0 +1,122 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.document.PaymentProcessorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentIdempotencyCacheTest {
+
+    // Uma stripe com gerações de 16 entradas
+    private static final int GENERATION_CAPACITY = 16;
+
+    private final PaymentIdempotencyCache cache = new PaymentIdempotencyCache(GENERATION_CAPACITY * 2, 1);
+
+    @Test
+    void followsPaymentLifecycle() {
+        UUID correlationId = UUID.randomUUID();
+
+        assertTrue(cache.tryAccept(correlationId));
+        assertFalse(cache.tryAccept(correlationId));
+        assertTrue(cache.tryClaim(correlationId));
+        assertFalse(cache.tryClaim(correlationId));
+
+        cache.release(correlationId);
+        assertFalse(cache.tryAccept(correlationId));
+        assertTrue(cache.tryClaim(correlationId));
+
+        cache.complete(correlationId, PaymentProcessorType.DEFAULT);
+        assertFalse(cache.tryAccept(correlationId));
+        assertFalse(cache.tryClaim(correlationId));
+    }
+
+    @Test
+    void forgottenPaymentLeavesTombstoneThatCanBeAcceptedAgain() {
+        UUID correlationId = UUID.randomUUID();
+        cache.tryAccept(correlationId);
+
+        cache.forget(correlationId);
+
+        assertEquals(1L, cache.metrics().get("entries"));
+        assertTrue(cache.tryAccept(correlationId));
+        assertFalse(cache.tryAccept(correlationId));
+    }
+
+    @Test
+    void completedPaymentIsNotForgotten() {
+        UUID correlationId = UUID.randomUUID();
+        cache.tryAccept(correlationId);
+        cache.complete(correlationId, PaymentProcessorType.FALLBACK);
+
+        cache.forget(correlationId);
+
+        assertFalse(cache.tryAccept(correlationId));
+    }
+
+    @Test
+    void tombstonesKeepProbeChainsIntact() {
+        List<UUID> correlationIds = randomIds(GENERATION_CAPACITY);
+        correlationIds.forEach(cache::tryAccept);
+
+        for (int i = 0; i < correlationIds.size(); i += 2) {
+            cache.forget(correlationIds.get(i));
+        }
+
+        for (int i = 0; i < correlationIds.size(); i++) {
+            assertEquals(i % 2 == 0, cache.tryAccept(correlationIds.get(i)), "entry " + i);
+        }
+    }
+
+    @Test
+    void rotatesGenerationsAndEvictsEntriesNotTouchedSinceTheLastRotation() {
+        List<UUID> first = randomIds(GENERATION_CAPACITY);
+        first.forEach(cache::tryAccept);
+        List<UUID> second = randomIds(GENERATION_CAPACITY - 1);
+
+        // A primeira entrada da segunda geração gira as tabelas: a primeira geração vira a anterior
+        cache.tryAccept(second.getFirst());
+        UUID touched = first.getFirst();
+        assertFalse(cache.tryAccept(touched));
+        second.subList(1, second.size()).forEach(cache::tryAccept);
+        assertEquals(0L, cache.metrics().get("evictions"));
+
+        // A próxima rotação descarta a primeira geração, menos a entrada promovida ao ser consultada
+        cache.tryAccept(UUID.randomUUID());
+        assertEquals((long) GENERATION_CAPACITY, cache.metrics().get("evictions"));
+
+        assertFalse(cache.tryAccept(touched));
+        for (UUID correlationId : second) {
+            assertFalse(cache.tryAccept(correlationId));
+        }
+        for (UUID correlationId : first.subList(1, first.size())) {
+            assertTrue(cache.tryAccept(correlationId));
+        }
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        List<UUID> correlationIds = randomIds(8);
+        correlationIds.forEach(cache::tryAccept);
+
+        cache.clear();
+
+        assertEquals(0L, cache.metrics().get("entries"));
+        for (UUID correlationId : correlationIds) {
+            assertTrue(cache.tryAccept(correlationId));
+        }
+    }
+
+    private static List<UUID> randomIds(int count) {
+        List<UUID> correlationIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            correlationIds.add(UUID.randomUUID());
+        }
+        return correlationIds;
+    }
+}
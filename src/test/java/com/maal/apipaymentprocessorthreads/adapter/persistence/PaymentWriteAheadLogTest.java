@@ -0,0 +1,151 @@
+package com.maal.apipaymentprocessorthreads.adapter.persistence;
+
+import com.maal.apipaymentprocessorthreads.domain.model.Payment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentWriteAheadLogTest {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysOnlyUnfinishedPaymentsAfterRestart() throws IOException {
+        PaymentWriteAheadLog writeAheadLog = open();
+        List<Payment> payments = payments(3);
+        List<Long> positions = new ArrayList<>();
+        for (Payment payment : payments) {
+            positions.add(writeAheadLog.append(payment));
+        }
+        writeAheadLog.markCompleted(positions.get(1));
+        writeAheadLog.shutdown();
+
+        List<Payment> replayed = new ArrayList<>();
+        PaymentWriteAheadLog restarted = open();
+        restarted.replay((payment, position) -> replayed.add(payment));
+        restarted.shutdown();
+
+        assertEquals(List.of(payments.get(0), payments.get(2)), replayed);
+    }
+
+    @Test
+    void rollsToNewSegmentsWhenFullAndReplaysAcrossThem() throws IOException {
+        PaymentWriteAheadLog writeAheadLog = open();
+        List<Payment> payments = payments(RECORDS_PER_SEGMENT * 2 + 2);
+        for (Payment payment : payments) {
+            writeAheadLog.append(payment);
+        }
+        assertEquals(3, writeAheadLog.segmentCount());
+        writeAheadLog.shutdown();
+
+        List<Payment> replayed = new ArrayList<>();
+        PaymentWriteAheadLog restarted = open();
+        restarted.replay((payment, position) -> replayed.add(payment));
+        restarted.shutdown();
+
+        assertEquals(payments.size(), replayed.size());
+        assertEquals(new HashSet<>(payments), new HashSet<>(replayed));
+    }
+
+    @Test
+    void deletesSealedSegmentOnceEveryRecordIsCompleted() throws Exception {
+        PaymentWriteAheadLog writeAheadLog = open();
+        List<Long> positions = new ArrayList<>();
+        for (Payment payment : payments(RECORDS_PER_SEGMENT + 1)) {
+            positions.add(writeAheadLog.append(payment));
+        }
+        Path first = directory.resolve("wal-0000000001.log");
+        Path second = directory.resolve("wal-0000000002.log");
+
+        for (int i = 0; i < RECORDS_PER_SEGMENT - 1; i++) {
+            writeAheadLog.markCompleted(positions.get(i));
+        }
+        Thread.sleep(50);
+        assertTrue(Files.exists(first), "segment with a pending record must be kept");
+
+        writeAheadLog.markCompleted(positions.get(RECORDS_PER_SEGMENT - 1));
+        awaitDeleted(first);
+        writeAheadLog.markCompleted(positions.get(RECORDS_PER_SEGMENT));
+        Thread.sleep(50);
+        assertTrue(Files.exists(second), "the current segment is never deleted");
+        assertEquals(1, writeAheadLog.segmentCount());
+        writeAheadLog.shutdown();
+    }
+
+    @Test
+    void deletesReplayedSegmentsOnceTheirPaymentsComplete() throws Exception {
+        PaymentWriteAheadLog writeAheadLog = open();
+        for (Payment payment : payments(2)) {
+            writeAheadLog.append(payment);
+        }
+        writeAheadLog.shutdown();
+
+        List<Long> positions = new ArrayList<>();
+        PaymentWriteAheadLog restarted = open();
+        restarted.replay((payment, position) -> positions.add(position));
+        Path previous = directory.resolve("wal-0000000001.log");
+        assertTrue(Files.exists(previous));
+
+        positions.forEach(restarted::markCompleted);
+        awaitDeleted(previous);
+        restarted.shutdown();
+
+        PaymentWriteAheadLog again = open();
+        again.replay((payment, position) -> positions.add(-1L));
+        again.shutdown();
+        assertFalse(positions.contains(-1L), "completed payments must not be replayed");
+    }
+
+    @Test
+    void disabledLogHasNoPositionsAndReplaysNothing() throws IOException {
+        PaymentWriteAheadLog writeAheadLog = new PaymentWriteAheadLog(false, directory.toString(), 1024, 1);
+        writeAheadLog.init();
+
+        assertEquals(PaymentWriteAheadLog.NO_POSITION, writeAheadLog.append(payments(1).getFirst()));
+        writeAheadLog.markCompleted(PaymentWriteAheadLog.NO_POSITION);
+        writeAheadLog.replay((payment, position) -> {
+            throw new AssertionError("disabled log must not replay");
+        });
+        writeAheadLog.shutdown();
+    }
+
+    private PaymentWriteAheadLog open() throws IOException {
+        PaymentWriteAheadLog writeAheadLog = new PaymentWriteAheadLog(true, directory.toString(),
+                RECORDS_PER_SEGMENT * PaymentWriteAheadLog.RECORD_SIZE, 1);
+        writeAheadLog.init();
+        return writeAheadLog;
+    }
+
+    private static List<Payment> payments(int count) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payments.add(new Payment(UUID.randomUUID(), 1_990 + i, Instant.ofEpochMilli(1_700_000_000_000L + i)));
+        }
+        return payments;
+    }
+
+    private static void awaitDeleted(Path file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (Files.exists(file)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(file + " was not deleted");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.maal.apipaymentprocessorthreads.entrypoint.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentRequestParserTest {
+
+    private static final UUID CORRELATION_ID = UUID.fromString("4a7901b8-7d26-4d9d-aa19-4dc1c7cf60b3");
+    private static final String ID = "\"" + CORRELATION_ID + "\"";
+
+    private final PaymentRequestParser parser = new PaymentRequestParser();
+
+    @Test
+    void parsesCanonicalBody() {
+        assertTrue(parse("{\"correlationId\":" + ID + ",\"amount\":19.90}"));
+        assertEquals(CORRELATION_ID, new UUID(parser.mostSignificantBits(), parser.leastSignificantBits()));
+        assertEquals(1_990L, parser.amountInCents());
+    }
+
+    @Test
+    void acceptsWhitespaceAnywhereBetweenTokensAndUppercaseUuid() {
+        assertTrue(parse(" \n{ \"amount\" :\t-0.5 ,\r\n \"correlationId\" : " + ID.toUpperCase() + " } "));
+        assertEquals(CORRELATION_ID, new UUID(parser.mostSignificantBits(), parser.leastSignificantBits()));
+        assertEquals(-50L, parser.amountInCents());
+    }
+
+    @Test
+    void reportsMissingOrNullCorrelationId() {
+        assertTrue(parse("{\"amount\":1}"));
+        assertFalse(parser.hasCorrelationId());
+
+        assertTrue(parse("{\"correlationId\":" + ID + ",\"amount\":1,\"correlationId\":null}"));
+        assertFalse(parser.hasCorrelationId());
+    }
+
+    @Test
+    void leavesMissingOrNullAmountToJackson() {
+        assertFalse(parse("{\"correlationId\":" + ID + "}"));
+        assertFalse(parse("{\"correlationId\":" + ID + ",\"amount\":null}"));
+    }
+
+    @Test
+    void skipsValidExtraFields() {
+        assertTrue(parse("{\"note\":\"a \\\"quoted\\\" \\u00e9 \\\\ \\/ \\n\",\"correlationId\":" + ID
+                + ",\"tags\":[1,-2.5e+3,true,false,null,{\"nested\":[]}],\"amount\":10,\"extra\":{}}"));
+        assertEquals(1_000L, parser.amountInCents());
+    }
+
+    @Test
+    void leavesInvalidExtraFieldsToJackson() {
+        String prefix = "{\"correlationId\":" + ID + ",\"amount\":1,\"extra\":";
+        assertFalse(parse(prefix + "[1,,2]}"));
+        assertFalse(parse(prefix + "01}"));
+        assertFalse(parse(prefix + "1.}"));
+        assertFalse(parse(prefix + "\"bad \\q escape\"}"));
+        assertFalse(parse(prefix + "\"bad \\u12g4 escape\"}"));
+        assertFalse(parse(prefix + "\"raw\ttab\"}"));
+        assertFalse(parse(prefix + "tru}"));
+        assertFalse(parse(prefix + "{\"a\":1,}}"));
+    }
+
+    @Test
+    void convertsDecimalsUpToTwoSignificantPlaces() {
+        assertAmount("0", 0);
+        assertAmount("7", 700);
+        assertAmount("7.5", 750);
+        assertAmount("7.05", 705);
+        assertAmount("7.0500", 705);
+        assertAmount("-0.01", -1);
+    }
+
+    @Test
+    void leavesAmountsItCannotRepresentExactlyToJackson() {
+        assertNotHandled("1.234");
+        assertNotHandled("1.001");
+        assertNotHandled("1e2");
+        assertNotHandled("1.5E-1");
+        assertNotHandled("\"19.90\"");
+        assertNotHandled("999999999999999999999");
+    }
+
+    @Test
+    void rejectsMalformedAmounts() {
+        assertNotHandled("007.5");
+        assertNotHandled("-01");
+        assertNotHandled(".5");
+        assertNotHandled("1.");
+        assertNotHandled("-");
+        assertNotHandled("+1");
+    }
+
+    @Test
+    void leavesNonCanonicalCorrelationIdsToJackson() {
+        assertFalse(parse("{\"correlationId\":\"4a7901b8-7d26-4d9d-aa19\",\"amount\":1}"));
+        assertFalse(parse("{\"correlationId\":\"4a7901b8x7d26-4d9d-aa19-4dc1c7cf60b3\",\"amount\":1}"));
+        assertFalse(parse("{\"correlation\\u0049d\":" + ID + ",\"amount\":1}"));
+        assertFalse(parse("{\"correlationId\":42,\"amount\":1}"));
+    }
+
+    @Test
+    void rejectsMalformedObjects() {
+        assertFalse(parse(""));
+        assertFalse(parse("[]"));
+        assertFalse(parse("{\"correlationId\":" + ID + ",\"amount\":1,}"));
+        assertFalse(parse("{\"correlationId\":" + ID + " \"amount\":1}"));
+        assertFalse(parse("{\"correlationId\":" + ID + ",\"amount\":1"));
+        assertFalse(parse("{correlationId:" + ID + ",\"amount\":1}"));
+    }
+
+    @Test
+    void parsesOnlyTheGivenLength() {
+        byte[] body = ("{\"correlationId\":" + ID + ",\"amount\":12.34}garbage").getBytes(StandardCharsets.UTF_8);
+        assertTrue(parser.parse(body, body.length - "garbage".length()));
+        assertEquals(1_234L, parser.amountInCents());
+        assertFalse(parser.parse(body, body.length - "garbage".length() - 1));
+    }
+
+    private boolean parse(String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(body, body.length);
+    }
+
+    private void assertAmount(String amount, long expectedCents) {
+        assertTrue(parse("{\"correlationId\":" + ID + ",\"amount\":" + amount + "}"), amount);
+        assertEquals(expectedCents, parser.amountInCents(), amount);
+    }
+
+    private void assertNotHandled(String amount) {
+        assertFalse(parse("{\"correlationId\":" + ID + ",\"amount\":" + amount + "}"), amount);
+    }
+}